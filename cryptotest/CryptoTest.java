@@ -27,8 +27,15 @@ package cryptotest;
 import cryptotest.tests.TestProviders;
 import cryptotest.tests.TestServices;
 import cryptotest.utils.AlgorithmTest;
+import cryptotest.utils.CheckTimings;
 import cryptotest.utils.ClassFinder;
+import cryptotest.utils.KeyCache;
+import cryptotest.utils.PinningMonitor;
+import cryptotest.utils.ProviderFingerprints;
+import cryptotest.utils.Shards;
+import cryptotest.utils.SweepExecutor;
 import cryptotest.utils.TestResult;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -88,12 +95,27 @@ import java.util.List;
  *        cryptotest.tests.TransformServiceTests
  *        cryptotest.tests.TrustManagerFactoryTests
  *        cryptotest.tests.XMLSignatureFactoryTests
+ *        cryptotest.utils.AlgorithmCheck
  *        cryptotest.utils.AlgorithmInstantiationException
  *        cryptotest.utils.AlgorithmRunException
  *        cryptotest.utils.AlgorithmTest
+ *        cryptotest.utils.AlgorithmTimeoutException
+ *        cryptotest.utils.ApiBridge
+ *        cryptotest.utils.CheckTimings
+ *        cryptotest.utils.CheckWatchdog
  *        cryptotest.utils.ClassFinder
+ *        cryptotest.utils.KeyCache
+ *        cryptotest.utils.JsonLines
+ *        cryptotest.utils.KeyCorpus
  *        cryptotest.utils.KeysNaiveGenerator
  *        cryptotest.utils.Misc
+ *        cryptotest.utils.PinningMonitor
+ *        cryptotest.utils.PkiFixtures
+ *        cryptotest.utils.PkiGenerator
+ *        cryptotest.utils.ProgressJournal
+ *        cryptotest.utils.ProviderFingerprints
+ *        cryptotest.utils.Shards
+ *        cryptotest.utils.SweepExecutor
  *        cryptotest.utils.TestResult
  *        cryptotest.utils.Xml
  * @run main/othervm/timeout=1800 cryptotest.CryptoTest
@@ -122,12 +144,21 @@ public class CryptoTest {
      * @throws java.lang.IllegalAccessException
      */
     public static void main(String[] args) throws InstantiationException, IllegalAccessException {
-
+        long started = System.nanoTime();
         List<Class<? extends AlgorithmTest>> alltests = ClassFinder.findAllAlgorithmTest();
         System.out.println("Loaded test files: " + alltests.size());
         List<TestResult> results = new ArrayList<>(alltests.size());
+        List<AlgorithmTest> tests = new ArrayList<>(alltests.size());
         for (Class<? extends AlgorithmTest> testClass : alltests) {
-            AlgorithmTest test = testClass.newInstance();
+            tests.add(testClass.newInstance());
+        }
+        if (SweepExecutor.isParallel()) {
+            //let the workers run checks of all tests, results are still collected test by test
+            for (AlgorithmTest test : tests) {
+                test.schedule();
+            }
+        }
+        for (AlgorithmTest test : tests) {
             results.add(test.doTest());
         }
 
@@ -141,6 +172,7 @@ public class CryptoTest {
             System.out.println(r.getExplanation());
             System.out.println(r.toString());
             if (r instanceof TestResult.AlgorithmTestResult) {
+                Shards.writeSummary((TestResult.AlgorithmTestResult) r);
                 maxSeen = Math.max(maxSeen, ((TestResult.AlgorithmTestResult) r).getSeen());
                 minSeen = Math.min(minSeen, ((TestResult.AlgorithmTestResult) r).getSeen());
                 totalAlghoritmsChecked += r.getSubtests();
@@ -153,7 +185,10 @@ public class CryptoTest {
         }
         System.out.println(results.get(results.size() - 1).getExplanation());
         System.out.println(results.get(results.size() - 1).toString());
-        if (maxSeen != totalAlghoritmsChecked) {
+        if (Shards.isSharded()) {
+            //algorithms of other shards are missed here, Shards merge checks all were tested
+            results.add(new TestResult("Tested " + totalAlghoritmsChecked + " from " + maxSeen + " algorithms in " + Shards.getDescription(), TestResult.State.PASSED, NoAlgorithmMissed.class, 1, 0));
+        } else if (maxSeen != totalAlghoritmsChecked) {
             results.add(new TestResult("Some algorithms missed! Checked " + totalAlghoritmsChecked + " from " + maxSeen, TestResult.State.FAILED, NoAlgorithmMissed.class, 1, 1));
         } else {
             results.add(new TestResult("Tested all " + totalAlghoritmsChecked + " algorithms", TestResult.State.PASSED, NoAlgorithmMissed.class, 1, 0));
@@ -164,10 +199,33 @@ public class CryptoTest {
         int failures = 0;
         for (TestResult r : results) {
             System.out.println(r.toString());
-            if (r.getState() == TestResult.State.FAILED) {
+            if (r.getState() != TestResult.State.PASSED) {
                 failures++;
             }
         }
+        if (Settings.VerbositySettings.slowestChecks > 0) {
+            List<CheckTimings> timings = new ArrayList<>();
+            for (TestResult r : results) {
+                if (r instanceof TestResult.AlgorithmTestResult && ((TestResult.AlgorithmTestResult) r).getTimings() != null) {
+                    timings.add(((TestResult.AlgorithmTestResult) r).getTimings());
+                }
+            }
+            CheckTimings.printReport(timings, Settings.VerbositySettings.slowestChecks, System.out);
+            System.out.println("----------------------------------");
+        }
+        System.out.println(KeyCache.getSummary());
+        PinningMonitor.printReport(System.out);
+        System.out.println("Sweep took " + (System.nanoTime() - started) / 1000000 + "ms"
+                + (SweepExecutor.isParallel() ? " with " + SweepExecutor.getThreads() + " " + Settings.executor + " workers" : ""));
+        ProviderFingerprints fingerprints = ProviderFingerprints.getFingerprints();
+        //shard did not check all providers
+        if (fingerprints != null && failures == 0 && !Shards.isSharded()) {
+            try {
+                fingerprints.save();
+            } catch (IOException ex) {
+                System.err.println("Fingerprints not saved: " + ex);
+            }
+        }
         System.out.println("Test runs: " + results.size() + "; failed: " + failures);
         if (failures > 0) {
             throw new RuntimeException("Some tests failed: " + failures);
@@ -24,6 +24,7 @@
 
 package cryptotest;
 
+import java.io.File;
 
 public class Settings {
 
@@ -40,14 +41,81 @@ public class Settings {
         return defaultValue;
     }
 
+    private static int getIntProperty(String name, int defaultValue) {
+        String val = System.getProperty(name);
+        if (val != null) {
+            try {
+                return Integer.parseInt(val.trim());
+            } catch (NumberFormatException ex) {
+                System.err.println("Invalid value of " + name + ": " + val + ", using " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static int[] getIntListProperty(String name, int[] defaultValue) {
+        String val = System.getProperty(name);
+        if (val != null) {
+            try {
+                String[] parts = val.split(",");
+                int[] r = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    r[i] = Integer.parseInt(parts[i].trim());
+                }
+                return r;
+            } catch (NumberFormatException ex) {
+                System.err.println("Invalid value of " + name + ": " + val + ", using defaults");
+            }
+        }
+        return defaultValue;
+    }
+
     public static String agentHostName = System.getProperty("cryptotests.agentHostName");
 
     public static boolean skipAgentTests = getBooleanProperty("cryptotests.skipAgentTests", false);
     //not only names of algorithms will be invoked, but also all aliases. Number of tests multiply by aprox 3, but right thing to do
     public static boolean testAliases = true;
+    //number of worker threads checking algorithms; 1 is the classic serial run, 0 means one per cpu
+    public static int threads = getIntProperty("cryptotests.threads", 1);
+    //kind of worker pool used when threads > 1: "fixed", "forkjoin" or "virtual" (jdk 21+, threads limits running checks)
+    public static String executor = System.getProperty("cryptotests.executor", "fixed");
+    //whether generated keys are reused by all checks, and how many key shapes are kept
+    public static boolean keyCache = getBooleanProperty("cryptotests.keyCache", true);
+    public static int keyCacheSize = getIntProperty("cryptotests.keyCache.size", 256);
+    //file with pre-generated keys, see KeyCorpus
+    public static String keyCorpus = System.getProperty("cryptotests.keyCorpus");
+    //JSON Lines file one record per check is appended to
+    public static String results = System.getProperty("cryptotests.results");
+    //JSON Lines file each check is recorded to as soon as it completes, so interrupted run can be resumed
+    public static String journal = System.getProperty("cryptotests.journal");
+    //checks found in journal (for same jdk build) are not run again, their recorded outcome is used
+    public static boolean resume = getBooleanProperty("cryptotests.resume", false);
+    //file with fingerprints of providers of last successful CryptoTest run, see ProviderFingerprints
+    public static String fingerprints = System.getProperty("cryptotests.fingerprints");
+    //whether to run only checks of providers changed since the fingerprints were saved
+    public static boolean delta = getBooleanProperty("cryptotests.delta", false);
+    //delta run turns into full one when last full run is older than this
+    public static int fullRunDays = getIntProperty("cryptotests.fullRunDays", 7);
+    //number of parts checks are split to, each run by its own jvm, see Shards
+    public static int shards = getIntProperty("cryptotests.shards", 1);
+    //part of checks this jvm runs, from 0 to shards - 1
+    public static int shard = getIntProperty("cryptotests.shard", 0);
+    //directory generated PKI fixtures are cached in, see PkiFixtures; empty to generate them in every jvm
+    public static String fixtures = System.getProperty("cryptotests.fixtures",
+            new File(System.getProperty("java.io.tmpdir"), "cryptotest-fixtures").getPath());
+    //milliseconds a check may run before it is abandoned as TIMEOUT, 0 turns the watchdog off; some tests allow more,
+    //parallel runs allow threads times more
+    public static int checkTimeout = getIntProperty("cryptotests.checkTimeout", 120000);
+    //JSON Lines results of previous runs, checks fast in them get shorter timeout; defaults to cryptotests.results
+    public static String timings = System.getProperty("cryptotests.timings", results);
 
     public static class VerbositySettings {
 
+        //number of slowest checks printed at the end of CryptoTest, 0 for no timing report
+        public static int slowestChecks = getIntProperty("cryptotests.slowestChecks", 20);
+        //stacks of failed checks of each kind kept for explanation of the test, rest is only counted (and in cryptotests.results)
+        public static int keptStacks = getIntProperty("cryptotests.keptStacks", 20);
+
         public static boolean printAtts = true;
         public static boolean printAliases = true;
         //whether to stdout various byte[] crypto results
@@ -55,4 +123,53 @@ public class Settings {
         public static boolean printStacks = false;
     }
 
+    public static class BenchmarkSettings {
+
+        //regular expression matched against provider/algorithm, eg "SunJCE/AES.*"
+        public static String filter = System.getProperty("cryptotests.bench.filter");
+        public static int warmupIterations = getIntProperty("cryptotests.bench.warmupIterations", 2);
+        public static int iterations = getIntProperty("cryptotests.bench.iterations", 5);
+        //length of one warmup or measurement iteration in milliseconds
+        public static int iterationTime = getIntProperty("cryptotests.bench.iterationTime", 500);
+        //file results are appended to, so runs on different jdks can be compared
+        public static String output = System.getProperty("cryptotests.bench.output");
+        //smallest slowdown in percents BenchmarkComparator reports as regression
+        public static int threshold = getIntProperty("cryptotests.bench.threshold", 5);
+        //milliseconds a measurement which may block (SecureRandom) may take over its iterations before it is abandoned
+        public static int timeout = getIntProperty("cryptotests.bench.timeout", 10000);
+        //regular expression of cipher suites SSLContextBenchmark measures, each benchmark has its own defaults
+        public static String suites = System.getProperty("cryptotests.bench.suites");
+        //key types of generated certificates, comma separated, see PkiGenerator
+        public static String keyTypes = System.getProperty("cryptotests.bench.keyTypes", "RSA,EC,Ed25519,ML-DSA-65");
+        //number of certificates issued by each CA of generated hierarchies
+        public static int fanOut = getIntProperty("cryptotests.bench.fanOut", 2);
+        //confidence level in percents of BenchmarkComparator intervals
+        public static int confidence = getIntProperty("cryptotests.bench.confidence", 95);
+
+        //payload sizes in bytes, each benchmark has its own defaults
+        public static int[] getSizes(int... defaults) {
+            return getIntListProperty("cryptotests.bench.sizes", defaults);
+        }
+
+        //lengths of generated certificate paths, each benchmark has its own defaults
+        public static int[] getDepths(int... defaults) {
+            return getIntListProperty("cryptotests.bench.depths", defaults);
+        }
+
+        //sizes of trust anchor sets, each benchmark has its own defaults
+        public static int[] getAnchors(int... defaults) {
+            return getIntListProperty("cryptotests.bench.anchors", defaults);
+        }
+
+        //numbers of unrelated certificates in certificate stores, each benchmark has its own defaults
+        public static int[] getStoreSizes(int... defaults) {
+            return getIntListProperty("cryptotests.bench.storeSizes", defaults);
+        }
+
+        //thread counts of multi-threaded benchmarks, each benchmark has its own defaults
+        public static int[] getThreads(int... defaults) {
+            return getIntListProperty("cryptotests.bench.threads", defaults);
+        }
+    }
+
 }
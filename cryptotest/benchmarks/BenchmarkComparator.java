@@ -0,0 +1,235 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.utils.BenchmarkResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two files of benchmark results, eg of two jdk builds, and fails
+ * when some operation got significantly slower. For each result present in
+ * both files, Welch's t-test decides whether the difference is significant,
+ * and its confidence interval is reported relative to the baseline. Result
+ * regresses when the difference is significant and its decrease is bigger
+ * than threshold. Results repeated in one file are merged, as more samples.
+ */
+public class BenchmarkComparator {
+
+    public static final String REGRESSION = "REGRESSION";
+    public static final String IMPROVEMENT = "improvement";
+    public static final String SAME = "same";
+    public static final String UNKNOWN = "n/a";
+
+    /**
+     * Difference of one result between baseline and candidate.
+     */
+    public static class Comparison {
+
+        public final String key;
+        public final double baseline;
+        public final double candidate;
+        //relative to baseline mean, in percents
+        public final double change;
+        public final double low;
+        public final double high;
+        public final String verdict;
+
+        Comparison(String key, double baseline, double candidate, double change, double low, double high, String verdict) {
+            this.key = key;
+            this.baseline = baseline;
+            this.candidate = candidate;
+            this.change = change;
+            this.low = low;
+            this.high = high;
+            this.verdict = verdict;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-60s %14.3f %14.3f %+8.2f%% [%+8.2f%%, %+8.2f%%] %s",
+                    key, baseline, candidate, change, low, high, verdict);
+        }
+    }
+
+    public static Map<String, BenchmarkResult> read(String file) throws IOException {
+        Map<String, BenchmarkResult> r = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            BenchmarkResult result = BenchmarkResult.fromLine(line);
+            BenchmarkResult previous = r.get(result.getKey());
+            if (previous != null) {
+                double[] scores = Arrays.copyOf(previous.getScores(), previous.getScores().length + result.getScores().length);
+                System.arraycopy(result.getScores(), 0, scores, previous.getScores().length, result.getScores().length);
+                result = new BenchmarkResult(result.getProvider(), result.getAlgorithm(), result.getOperation(),
+                        result.getParam(), result.getUnit(), scores, result.getLatencies());
+            }
+            r.put(result.getKey(), result);
+        }
+        return r;
+    }
+
+    /**
+     * Scores are throughputs, so bigger is better.
+     *
+     * @param threshold smallest decrease in percents considered regression
+     * @param confidence eg 0.95
+     */
+    public static Comparison compare(BenchmarkResult baseline, BenchmarkResult candidate, double threshold, double confidence) {
+        double m1 = baseline.getMean();
+        double m2 = candidate.getMean();
+        int n1 = baseline.getScores().length;
+        int n2 = candidate.getScores().length;
+        double change = (m2 - m1) / m1 * 100;
+        if (n1 < 2 || n2 < 2) {
+            //no variance, no test
+            return new Comparison(baseline.getKey(), m1, m2, change, Double.NaN, Double.NaN, UNKNOWN);
+        }
+        double v1 = baseline.getStdDev() * baseline.getStdDev() / n1;
+        double v2 = candidate.getStdDev() * candidate.getStdDev() / n2;
+        double se = Math.sqrt(v1 + v2);
+        double margin = 0;
+        if (se > 0) {
+            //Welch-Satterthwaite degrees of freedom
+            double df = (v1 + v2) * (v1 + v2) / (v1 * v1 / (n1 - 1) + v2 * v2 / (n2 - 1));
+            margin = tQuantile(1 - (1 - confidence) / 2, df) * se;
+        }
+        double low = (m2 - m1 - margin) / m1 * 100;
+        double high = (m2 - m1 + margin) / m1 * 100;
+        String verdict;
+        if (low <= 0 && high >= 0) {
+            verdict = SAME;
+        } else if (high < 0) {
+            verdict = -change > threshold ? REGRESSION : SAME;
+        } else {
+            verdict = change > threshold ? IMPROVEMENT : SAME;
+        }
+        return new Comparison(baseline.getKey(), m1, m2, change, low, high, verdict);
+    }
+
+    /**
+     * Quantile of Student's t distribution, by Cornish-Fisher expansion
+     * around normal quantile. Precise enough for df of few iterations.
+     */
+    public static double tQuantile(double p, double df) {
+        double z = normalQuantile(p);
+        double z2 = z * z;
+        double z3 = z2 * z;
+        double z5 = z3 * z2;
+        double z7 = z5 * z2;
+        double z9 = z7 * z2;
+        return z
+                + (z3 + z) / (4 * df)
+                + (5 * z5 + 16 * z3 + 3 * z) / (96 * df * df)
+                + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * df * df * df)
+                + (79 * z9 + 776 * z7 + 1482 * z5 - 1920 * z3 - 945 * z) / (92160 * df * df * df * df);
+    }
+
+    /**
+     * Quantile of standard normal distribution, by rational approximation of P. J. Acklam.
+     */
+    public static double normalQuantile(double p) {
+        double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+            6.680131188771972e+01, -1.328068155288572e+01};
+        double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+            3.754408661907416e+00};
+        double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        } else if (p > 1 - low) {
+            return -normalQuantile(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    public static List<Comparison> compare(Map<String, BenchmarkResult> baseline, Map<String, BenchmarkResult> candidate,
+            double threshold, double confidence) {
+        List<Comparison> r = new ArrayList<>();
+        for (BenchmarkResult b : baseline.values()) {
+            BenchmarkResult c = candidate.get(b.getKey());
+            if (c != null) {
+                r.add(compare(b, c, threshold, confidence));
+            }
+        }
+        return r;
+    }
+
+    /**
+     * @param args baseline file and candidate file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Expected two arguments - baseline and candidate result files");
+        }
+        Map<String, BenchmarkResult> baseline = read(args[0]);
+        Map<String, BenchmarkResult> candidate = read(args[1]);
+        double threshold = Settings.BenchmarkSettings.threshold;
+        double confidence = Settings.BenchmarkSettings.confidence / 100d;
+        System.out.println(String.format(Locale.US, "%-60s %14s %14s %9s %23s", "result", "baseline", "candidate", "change",
+                (int) (confidence * 100) + "% interval"));
+        int regressions = 0;
+        for (Comparison c : compare(baseline, candidate, threshold, confidence)) {
+            System.out.println(c);
+            if (REGRESSION.equals(c.verdict)) {
+                regressions++;
+            }
+        }
+        for (String key : baseline.keySet()) {
+            if (!candidate.containsKey(key)) {
+                System.out.println("Missing in candidate: " + key);
+            }
+        }
+        for (String key : candidate.keySet()) {
+            if (!baseline.containsKey(key)) {
+                System.out.println("New in candidate: " + key);
+            }
+        }
+        System.out.println("Regressions bigger than " + threshold + "%: " + regressions);
+        if (regressions > 0) {
+            throw new RuntimeException("Some results regressed: " + regressions);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.utils.AlgorithmBenchmark;
+import cryptotest.utils.IndexedCertStore;
+import cryptotest.utils.PkiFixtures;
+import cryptotest.utils.PkiGenerator;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.security.cert.CertPathBuilder;
+import java.security.cert.CertStore;
+import java.security.cert.CollectionCertStoreParameters;
+import java.security.cert.PKIXBuilderParameters;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Time of CertPathBuilder.build of all providers, for leaves of synthetic
+ * hierarchies (see PkiGenerator) whose certificates are in a CertStore
+ * among cryptotests.bench.storeSizes unrelated intermediates. The
+ * "Collection" store, which scans all its certificates for each lookup, is
+ * compared with IndexedCertStore, whose provider is registered only for
+ * the time of this benchmark. Path length is the first of
+ * cryptotests.bench.depths (3), each CA issues cryptotests.bench.fanOut
+ * certificates. Revocation checking is disabled.
+ */
+public class CertPathBuilderBenchmark extends AlgorithmBenchmark {
+
+    private List<X509Certificate> decoys;
+
+    public static void main(String[] args) {
+        Provider indexed = new IndexedCertStore.IndexedProvider();
+        Security.addProvider(indexed);
+        try {
+            new CertPathBuilderBenchmark().doBenchmark();
+        } finally {
+            Security.removeProvider(indexed.getName());
+        }
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "CertPathBuilder";
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        int[] storeSizes = Settings.BenchmarkSettings.getStoreSizes(1000, 10000, 100000);
+        if (decoys == null) {
+            int max = 0;
+            for (int size : storeSizes) {
+                max = Math.max(max, size);
+            }
+            System.out.println("Generating " + max + " certificates for the stores");
+            decoys = createDecoyGenerator().createDecoyIntermediates("store", max);
+        }
+        int depth = Settings.BenchmarkSettings.getDepths(3)[0];
+        for (String keyType : Settings.BenchmarkSettings.keyTypes.split(",")) {
+            keyType = keyType.trim();
+            PkiGenerator.Hierarchy hierarchy;
+            try {
+                hierarchy = PkiFixtures.get(keyType, depth, Settings.BenchmarkSettings.fanOut, 0,
+                        PkiFixtures.DEFAULT_SEED).hierarchy;
+            } catch (NoSuchAlgorithmException ex) {
+                System.out.println(keyType + " not supported: " + ex.getMessage());
+                continue;
+            }
+            for (int size : storeSizes) {
+                List<Object> content = new ArrayList<Object>(decoys.subList(0, size));
+                content.addAll(hierarchy.certificates);
+                //hierarchy should not be found by luck at the beginning of the scan
+                Collections.shuffle(content, new SecureRandom());
+                CollectionCertStoreParameters storeParams = new CollectionCertStoreParameters(content);
+                String param = keyType + "-d" + depth + "-s" + size;
+                measure(service, "build", param + "-Collection", 0, true,
+                        build(service, hierarchy, CertStore.getInstance("Collection", storeParams)));
+                measure(service, "build", param + "-" + IndexedCertStore.TYPE, 0, true,
+                        build(service, hierarchy, CertStore.getInstance(IndexedCertStore.TYPE, storeParams, IndexedCertStore.IndexedProvider.NAME)));
+            }
+        }
+    }
+
+    /**
+     * Decoys are never verified, so they are signed by the fastest key type
+     * available.
+     */
+    private static PkiGenerator createDecoyGenerator() throws NoSuchAlgorithmException {
+        try {
+            return new PkiGenerator("Ed25519", new SecureRandom());
+        } catch (NoSuchAlgorithmException ex) {
+            return new PkiGenerator("EC", new SecureRandom());
+        }
+    }
+
+    /**
+     * @return operation building path of next leaf of the hierarchy
+     */
+    private static Operation build(Provider.Service service, final PkiGenerator.Hierarchy hierarchy, CertStore store) throws Exception {
+        final CertPathBuilder builder = CertPathBuilder.getInstance(service.getAlgorithm(), service.getProvider());
+        final List<PKIXBuilderParameters> params = new ArrayList<>();
+        for (PkiGenerator.Credential leaf : hierarchy.leaves) {
+            X509CertSelector target = new X509CertSelector();
+            target.setSubject(leaf.certificate.getSubjectX500Principal());
+            PKIXBuilderParameters p = new PKIXBuilderParameters(
+                    Collections.singleton(new TrustAnchor(hierarchy.root.certificate, null)), target);
+            p.setRevocationEnabled(false);
+            p.addCertStore(store);
+            params.add(p);
+        }
+        //fail early, not in the measurement
+        builder.build(params.get(0));
+        return new Operation() {
+            private int next;
+
+            @Override
+            public Object run() throws Exception {
+                next = (next + 1) % params.size();
+                return builder.build(params.get(next));
+            }
+        };
+    }
+}
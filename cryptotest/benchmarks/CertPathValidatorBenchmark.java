@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.utils.AlgorithmBenchmark;
+import cryptotest.utils.PkiFixtures;
+import cryptotest.utils.PkiGenerator;
+
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.cert.CertPath;
+import java.security.cert.CertPathValidator;
+import java.security.cert.CertificateFactory;
+import java.security.cert.PKIXParameters;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Throughput and latency of CertPathValidator.validate of all providers,
+ * against synthetic hierarchies (see PkiGenerator) of each key type in
+ * cryptotests.bench.keyTypes, path length in cryptotests.bench.depths and
+ * number of trust anchors in cryptotests.bench.anchors. Each validation
+ * takes path of next leaf of the hierarchy (cryptotests.bench.fanOut
+ * certificates are issued by each CA), so no single path gets cached.
+ * With more threads, each has its own validator, to show contention inside
+ * the provider. Revocation checking is disabled. Note that certificates of
+ * some providers (SUN) remember their last successful verification, so
+ * after warmup mostly path processing is measured, as on a server seeing
+ * the same clients again.
+ */
+public class CertPathValidatorBenchmark extends AlgorithmBenchmark {
+
+    //hierarchies are generated once, for all providers
+    private final Map<String, PkiGenerator.Hierarchy> hierarchies = new HashMap<>();
+    private final Map<String, List<X509Certificate>> decoys = new HashMap<>();
+
+    public static void main(String[] args) {
+        new CertPathValidatorBenchmark().doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "CertPathValidator";
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        int[] anchorCounts = Settings.BenchmarkSettings.getAnchors(1, 1000);
+        int maxAnchors = 1;
+        for (int anchors : anchorCounts) {
+            maxAnchors = Math.max(maxAnchors, anchors);
+        }
+        for (String keyType : Settings.BenchmarkSettings.keyTypes.split(",")) {
+            keyType = keyType.trim();
+            PkiGenerator generator;
+            try {
+                generator = new PkiGenerator(keyType, new SecureRandom());
+            } catch (NoSuchAlgorithmException ex) {
+                System.out.println(keyType + " not supported: " + ex.getMessage());
+                continue;
+            }
+            if (!decoys.containsKey(keyType)) {
+                decoys.put(keyType, generator.createDecoyAnchors(keyType, maxAnchors - 1));
+            }
+            for (int depth : Settings.BenchmarkSettings.getDepths(1, 3, 6)) {
+                String key = keyType + "-d" + depth;
+                PkiGenerator.Hierarchy hierarchy = hierarchies.get(key);
+                if (hierarchy == null) {
+                    hierarchy = PkiFixtures.get(keyType, depth, Settings.BenchmarkSettings.fanOut, 0,
+                            PkiFixtures.DEFAULT_SEED).hierarchy;
+                    hierarchies.put(key, hierarchy);
+                }
+                List<CertPath> paths = new ArrayList<>();
+                CertificateFactory cf = CertificateFactory.getInstance("X.509");
+                for (List<X509Certificate> chain : hierarchy.chains) {
+                    paths.add(cf.generateCertPath(chain));
+                }
+                for (int anchors : anchorCounts) {
+                    Set<TrustAnchor> trusted = new HashSet<>();
+                    trusted.add(new TrustAnchor(hierarchy.root.certificate, null));
+                    for (X509Certificate decoy : decoys.get(keyType).subList(0, anchors - 1)) {
+                        trusted.add(new TrustAnchor(decoy, null));
+                    }
+                    String param = key + "-a" + anchors;
+                    measure(service, "validate", param, 0, true, validate(service, paths, trusted));
+                    for (int threads : SecureRandomBenchmark.getThreadCounts()) {
+                        if (threads == 1) {
+                            continue;
+                        }
+                        Operation[] ops = new Operation[threads];
+                        for (int i = 0; i < threads; i++) {
+                            ops[i] = validate(service, paths, trusted);
+                        }
+                        measure(service, "validate", param + "-" + threads + "t", 0, ops);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return operation with its own validator and parameters, validating the paths in turn
+     */
+    private static Operation validate(Provider.Service service, final List<CertPath> paths, Set<TrustAnchor> trusted)
+            throws GeneralSecurityException {
+        final CertPathValidator validator = CertPathValidator.getInstance(service.getAlgorithm(), service.getProvider());
+        final PKIXParameters params = new PKIXParameters(trusted);
+        params.setRevocationEnabled(false);
+        //fail early, not in the measurement
+        validator.validate(paths.get(0), params);
+        return new Operation() {
+            private int next;
+
+            @Override
+            public Object run() throws Exception {
+                next = (next + 1) % paths.size();
+                return validator.validate(paths.get(next), params);
+            }
+        };
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.tests.CipherTests;
+import cryptotest.utils.AlgorithmBenchmark;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import java.security.AlgorithmParameters;
+import java.security.Key;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+
+/**
+ * Encryption, decryption and wrap throughput of all ciphers, for payload
+ * sizes from 16B to 16MB. Keys and parameters are the ones CipherTests use.
+ */
+public class CipherBenchmark extends AlgorithmBenchmark {
+
+    private final SecureRandom random = new SecureRandom();
+
+    public static void main(String[] args) {
+        new CipherBenchmark().doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "Cipher";
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        final Cipher c = Cipher.getInstance(service.getAlgorithm(), service.getProvider());
+        final CipherTests.CipherSetup setup = CipherTests.getCipherSetup(service, c.getBlockSize());
+        if (setup.wrap) {
+            c.init(Cipher.WRAP_MODE, setup.key);
+            final byte[] wrapped = c.wrap(setup.key);
+            measure(service, "wrap", "key", 0, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    return c.wrap(setup.key);
+                }
+            });
+            c.init(Cipher.UNWRAP_MODE, setup.decryptionKey);
+            measure(service, "unwrap", "key", 0, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    return c.unwrap(wrapped, setup.key.getAlgorithm(), Cipher.SECRET_KEY);
+                }
+            });
+            return;
+        }
+        int[] sizes = Settings.BenchmarkSettings.getSizes(16, 256, 4096, 65536, 1048576, 16777216);
+        if (service.getAlgorithm().contains("RSA")) {
+            //asymmetric cipher can encrypt just one block
+            sizes = new int[]{setup.block.length};
+        }
+        for (int size : sizes) {
+            benchmarkSize(service, c, setup, size);
+        }
+    }
+
+    private void benchmarkSize(Provider.Service service, final Cipher c, final CipherTests.CipherSetup setup,
+            int size) throws Exception {
+        final byte[] payload = CipherTests.generateBlock(size);
+        //AEAD ciphers refuse to encrypt twice with same key and nonce
+        final boolean reinit = setup.initSpec != null || service.getAlgorithm().contains("GCM");
+        //two encryptions, so ChaCha20 decryption can alternate between different nonces
+        final AlgorithmParameterSpec[] specs = new AlgorithmParameterSpec[2];
+        final byte[][] encrypted = new byte[2][];
+        for (int i = 0; i < 2; i++) {
+            specs[i] = nextSpec(setup);
+            init(c, Cipher.ENCRYPT_MODE, setup.key, specs[i], null);
+            encrypted[i] = c.doFinal(payload);
+        }
+        final AlgorithmParameters params = c.getParameters();
+        measure(service, "encrypt", size + "B", size, new Operation() {
+            @Override
+            public Object run() throws Exception {
+                if (reinit) {
+                    init(c, Cipher.ENCRYPT_MODE, setup.key, nextSpec(setup), null);
+                }
+                return c.doFinal(payload);
+            }
+        });
+        if (service.getAlgorithm().contains("HPKE")) {
+            //receiver would need encapsulation of each encryption
+            return;
+        }
+        if (setup.initSpec == null) {
+            init(c, Cipher.DECRYPT_MODE, setup.decryptionKey, null, params);
+            measure(service, "decrypt", size + "B", size, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    return c.doFinal(encrypted[1]);
+                }
+            });
+        } else {
+            //ChaCha20 ciphers need init after each doFinal, and refuse same nonce twice in row
+            measure(service, "decrypt", size + "B", size, new Operation() {
+                private int i;
+
+                @Override
+                public Object run() throws Exception {
+                    i = 1 - i;
+                    init(c, Cipher.DECRYPT_MODE, setup.decryptionKey, specs[i], null);
+                    return c.doFinal(encrypted[i]);
+                }
+            });
+        }
+    }
+
+    private AlgorithmParameterSpec nextSpec(CipherTests.CipherSetup setup) throws Exception {
+        if (setup.initSpec instanceof IvParameterSpec) {
+            byte[] nonce = new byte[12];
+            random.nextBytes(nonce);
+            return new IvParameterSpec(nonce);
+        } else if (setup.initSpec != null && setup.initSpec.getClass().getName().equals("javax.crypto.spec.ChaCha20ParameterSpec")) {
+            byte[] nonce = new byte[12];
+            random.nextBytes(nonce);
+            return CipherTests.getChaCha20ParameterSpec(nonce, 10);
+        }
+        return setup.initSpec;
+    }
+
+    private static void init(Cipher c, int mode, Key key, AlgorithmParameterSpec spec, AlgorithmParameters params) throws Exception {
+        if (spec != null) {
+            c.init(mode, key, spec);
+        } else if (params != null) {
+            c.init(mode, key, params);
+        } else {
+            c.init(mode, key);
+        }
+    }
+}
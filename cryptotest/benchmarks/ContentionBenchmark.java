@@ -0,0 +1,282 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.utils.AlgorithmBenchmark;
+import cryptotest.utils.AlgorithmTest;
+import cryptotest.utils.ApiBridge;
+import cryptotest.utils.BenchmarkResult;
+import cryptotest.utils.ClassFinder;
+
+import java.security.Provider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Throughput of getInstance(algorithm, provider) from more threads at once,
+ * for every service type tested by AlgorithmTest subclasses. Each thread
+ * cycles through all algorithms of the type, so the lookup in Provider and
+ * construction of the instance are measured, not the algorithm itself.
+ * Every type is measured with platform threads and, on jdk 21 and newer,
+ * with virtual threads, from 1 up to twice the number of cpus
+ * (cryptotests.bench.threads), and with two strategies: "fresh" instance
+ * for every call, and "threadLocal" which gets the instance once per thread
+ * and then reuses it (virtual threads are new for every iteration, so their
+ * first lookups are not cached). At the end, types are listed by how their
+ * throughput scales with threads, types which serialize the lookup come
+ * first.
+ */
+public class ContentionBenchmark extends AlgorithmBenchmark {
+
+    private static final String[] ENGINE_PACKAGES = {"java.security", "javax.crypto", "java.security.cert",
+        "javax.net.ssl", "javax.xml.crypto.dsig"};
+
+    private final String type;
+    private final ApiBridge getInstance;
+    private final List<Provider.Service> services = new ArrayList<>();
+    private final List<Curve> curves = new ArrayList<>();
+
+    public ContentionBenchmark(String type) {
+        this.type = type;
+        this.getInstance = findGetInstance(type);
+    }
+
+    public static void main(String[] args) {
+        Set<String> types = new TreeSet<>();
+        for (Class<? extends AlgorithmTest> testClass : ClassFinder.findAllAlgorithmTest()) {
+            try {
+                types.add(testClass.newInstance().getTestedPart());
+            } catch (InstantiationException | IllegalAccessException ex) {
+                System.out.println("Skipped " + testClass.getName() + ": " + ex);
+            }
+        }
+        List<Curve> curves = new ArrayList<>();
+        for (String type : types) {
+            ContentionBenchmark benchmark = new ContentionBenchmark(type);
+            if (!benchmark.getInstance.isAvailable()) {
+                System.out.println("Skipped " + type + ", no getInstance(String, Provider): " + benchmark.getInstance);
+                continue;
+            }
+            benchmark.doBenchmark();
+            curves.addAll(benchmark.curves);
+        }
+        printScaling(curves);
+    }
+
+    @Override
+    public String getTestedPart() {
+        return type;
+    }
+
+    /**
+     * Only checks the instance can be created, services which fail are not
+     * used in measurement.
+     */
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        getInstance.call(service.getAlgorithm(), service.getProvider());
+        services.add(service);
+    }
+
+    @Override
+    protected void benchmarkServices(List<Provider.Service> all) throws Exception {
+        if (services.isEmpty()) {
+            return;
+        }
+        ApiBridge virtual = ApiBridge.method(Executors.class, "newVirtualThreadPerTaskExecutor");
+        for (String strategy : new String[]{"fresh", "threadLocal"}) {
+            measureCurve(strategy, "platform", null);
+            if (virtual.isAvailable()) {
+                measureCurve(strategy, "virtual", virtual);
+            }
+        }
+    }
+
+    private void measureCurve(String strategy, String kind, ApiBridge virtual) throws Exception {
+        int[] threads = getThreadCounts();
+        Curve curve = new Curve(type, strategy, kind, threads);
+        for (int i = 0; i < threads.length; i++) {
+            ExecutorService executor = virtual == null
+                    ? Executors.newFixedThreadPool(threads[i])
+                    : (ExecutorService) virtual.invoke();
+            try {
+                for (int w = 0; w < Settings.BenchmarkSettings.warmupIterations; w++) {
+                    runIteration(executor, threads[i], strategy.equals("threadLocal"));
+                }
+                double[] scores = new double[Settings.BenchmarkSettings.iterations];
+                for (int m = 0; m < scores.length; m++) {
+                    scores[m] = runIteration(executor, threads[i], strategy.equals("threadLocal"));
+                }
+                BenchmarkResult r = addResult(new BenchmarkResult("*", type, "getInstance-" + strategy,
+                        kind + "-" + threads[i] + "t", "ops/s", scores));
+                curve.scores[i] = r.getMean();
+            } finally {
+                executor.shutdown();
+            }
+        }
+        curves.add(curve);
+    }
+
+    /**
+     * @return powers of two up to twice the number of cpus, including
+     * the number of cpus
+     */
+    static int[] getThreadCounts() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        Set<Integer> counts = new TreeSet<>();
+        for (int i = 1; i < 2 * cpus; i *= 2) {
+            counts.add(i);
+        }
+        counts.add(cpus);
+        counts.add(2 * cpus);
+        int[] defaults = new int[counts.size()];
+        int i = 0;
+        for (int count : counts) {
+            defaults[i++] = count;
+        }
+        return Settings.BenchmarkSettings.getThreads(defaults);
+    }
+
+    private double runIteration(ExecutorService executor, int threads, final boolean threadLocal) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final ThreadLocal<Object[]> instances = new ThreadLocal<>();
+        List<Future<Long>> futures = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            final int first = t;
+            futures.add(executor.submit(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    start.await();
+                    long deadline = System.nanoTime() + Settings.BenchmarkSettings.iterationTime * 1000000L;
+                    long ops = 0;
+                    int i = first;
+                    do {
+                        Object o = threadLocal ? getCached(instances, i) : getFresh(i);
+                        if (o != null) {
+                            ops++;
+                        }
+                        i = (i + 1) % services.size();
+                    } while (System.nanoTime() < deadline);
+                    return ops;
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        long ops = 0;
+        for (Future<Long> f : futures) {
+            ops += f.get();
+        }
+        return ops * 1e9 / (System.nanoTime() - begin);
+    }
+
+    private Object getFresh(int i) throws Exception {
+        Provider.Service service = services.get(i % services.size());
+        return getInstance.call(service.getAlgorithm(), service.getProvider());
+    }
+
+    private Object getCached(ThreadLocal<Object[]> instances, int i) throws Exception {
+        Object[] cache = instances.get();
+        if (cache == null) {
+            cache = new Object[services.size()];
+            instances.set(cache);
+        }
+        int index = i % services.size();
+        if (cache[index] == null) {
+            cache[index] = getFresh(index);
+        }
+        return cache[index];
+    }
+
+    private static ApiBridge findGetInstance(String type) {
+        ApiBridge bridge = null;
+        for (String pkg : ENGINE_PACKAGES) {
+            bridge = ApiBridge.method(pkg + "." + type, "getInstance", String.class, Provider.class);
+            if (bridge.isAvailable()) {
+                break;
+            }
+        }
+        return bridge;
+    }
+
+    private static void printScaling(List<Curve> curves) {
+        List<Curve> sorted = new ArrayList<>(curves);
+        Collections.sort(sorted, new Comparator<Curve>() {
+            @Override
+            public int compare(Curve o1, Curve o2) {
+                return Double.compare(o1.getSpeedup(), o2.getSpeedup());
+            }
+        });
+        System.out.println("Scaling of getInstance by threads, throughput relative to the first thread count:");
+        for (Curve c : sorted) {
+            StringBuilder sb = new StringBuilder(String.format(Locale.US, "%-28s %-12s %-9s %12.0f ops/s ",
+                    c.type, c.strategy, c.kind, c.scores[0]));
+            for (int i = 0; i < c.threads.length; i++) {
+                sb.append(String.format(Locale.US, " %d:%.2f", c.threads[i], c.scores[0] > 0 ? c.scores[i] / c.scores[0] : 0));
+            }
+            System.out.println(sb);
+        }
+    }
+
+    private static class Curve {
+
+        private final String type;
+        private final String strategy;
+        private final String kind;
+        private final int[] threads;
+        private final double[] scores;
+
+        Curve(String type, String strategy, String kind, int[] threads) {
+            this.type = type;
+            this.strategy = strategy;
+            this.kind = kind;
+            this.threads = threads;
+            this.scores = new double[threads.length];
+        }
+
+        /**
+         * @return best throughput relative to the first one, 1 means adding
+         * threads did not help at all
+         */
+        double getSpeedup() {
+            double best = 0;
+            for (double score : scores) {
+                best = Math.max(best, score);
+            }
+            return scores[0] > 0 ? best / scores[0] : 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.tests.KEMTests;
+import cryptotest.utils.AlgorithmBenchmark;
+import cryptotest.utils.KeysNaiveGenerator;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+
+/**
+ * Rate of encapsulation and decapsulation of all KEMs, and of whole
+ * handshake: ephemeral key pair of receiver, encapsulation by sender and
+ * decapsulation by receiver. KEM api is used through KEMTests, so it
+ * builds on jdks without it.
+ */
+public class KEMBenchmark extends AlgorithmBenchmark {
+
+    public static void main(String[] args) {
+        new KEMBenchmark().doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "KEM";
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        final Object kem = KEMTests.kem_getInstance(service.getAlgorithm(), service.getProvider());
+        final KeyPairGenerator kpg = KeysNaiveGenerator.getKeyPairGenerator(KEMTests.getKeyPairAlgorithm(service), service.getProvider());
+        KeyPair kp = kpg.generateKeyPair();
+        final Object sender = KEMTests.kem_newEncapsulator(kem, kp.getPublic());
+        final Object receiver = KEMTests.kem_newDecapsulator(kem, kp.getPrivate());
+        final byte[] encapsulation = KEMTests.encapsulated_encapsulation(KEMTests.encapsulator_encapsulate(sender));
+        measure(service, "encapsulate", "default", 0, true, new Operation() {
+            @Override
+            public Object run() throws Exception {
+                return KEMTests.encapsulator_encapsulate(sender);
+            }
+        });
+        measure(service, "decapsulate", "default", 0, true, new Operation() {
+            @Override
+            public Object run() throws Exception {
+                return KEMTests.decapsulator_decapsulate(receiver, encapsulation);
+            }
+        });
+        measure(service, "handshake", "default", 0, true, new Operation() {
+            @Override
+            public Object run() throws Exception {
+                KeyPair ephemeral = kpg.generateKeyPair();
+                Object encapsulated = KEMTests.encapsulator_encapsulate(KEMTests.kem_newEncapsulator(kem, ephemeral.getPublic()));
+                Object receiver = KEMTests.kem_newDecapsulator(kem, ephemeral.getPrivate());
+                return KEMTests.decapsulator_decapsulate(receiver, KEMTests.encapsulated_encapsulation(encapsulated));
+            }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.tests.KeyAgreementTests;
+import cryptotest.utils.AlgorithmBenchmark;
+import cryptotest.utils.KeysNaiveGenerator;
+import cryptotest.utils.Misc;
+
+import javax.crypto.KeyAgreement;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+
+/**
+ * Key establishment rate of all key agreements. "handshake" generates an
+ * ephemeral key pair and agrees with static key of the peer, as TLS does,
+ * "agreement" is the agreement alone, with keys generated before.
+ * Keys are of default size of the generator, as in KeyAgreementTests.
+ */
+public class KeyAgreementBenchmark extends AlgorithmBenchmark {
+
+    public static void main(String[] args) {
+        new KeyAgreementBenchmark().doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "KeyAgreement";
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(final Provider.Service service) throws Exception {
+        final KeyAgreement ka = KeyAgreement.getInstance(service.getAlgorithm(), service.getProvider());
+        String keyAlgorithm = KeyAgreementTests.getKeyPairAlgorithm(service.getAlgorithm());
+        //default initialized generator gives keys of same curve or group as the peer has
+        final KeyPairGenerator kpg = KeysNaiveGenerator.getKeyPairGenerator(keyAlgorithm, service.getProvider());
+        final KeyPair peer = kpg.generateKeyPair();
+        final KeyPair own = kpg.generateKeyPair();
+        measure(service, "agreement", "default", 0, true, new Operation() {
+            @Override
+            public Object run() throws Exception {
+                return agree(service, ka, own, peer);
+            }
+        });
+        measure(service, "handshake", "default", 0, true, new Operation() {
+            @Override
+            public Object run() throws Exception {
+                return agree(service, ka, kpg.generateKeyPair(), peer);
+            }
+        });
+    }
+
+    private static Object agree(Provider.Service service, KeyAgreement ka, KeyPair own, KeyPair peer) throws Exception {
+        ka.init(own.getPrivate());
+        ka.doPhase(peer.getPublic(), true);
+        if (Misc.isPkcs11Fips(service.getProvider())) {
+            //pkcs11 in FIPS mode cannot obtain raw secrets
+            return ka.generateSecret("TlsPremasterSecret");
+        }
+        return ka.generateSecret();
+    }
+}
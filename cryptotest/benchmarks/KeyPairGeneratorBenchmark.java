@@ -0,0 +1,185 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.utils.AlgorithmBenchmark;
+import cryptotest.utils.BenchmarkResult;
+import cryptotest.utils.KeyPairPool;
+import cryptotest.utils.LatencyRecorder;
+
+import java.security.KeyPairGenerator;
+import java.security.Provider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribution of key pair generation time of all key pair generators, per
+ * key size. Generation of prime based keys has long tail, so the results are
+ * also listed by ratio of p99.9 to median. Each shape is then measured again
+ * with keys taken from KeyPairPool, pre-generated on background threads, to
+ * show how much latency the pre-generation hides. Pool is refilled before
+ * each of those iterations, which then takes all keys of the full pool, as
+ * a pool sized for its load would be used; hits and misses of the pool are
+ * printed with the result. Slow shapes (RSA-4096) need longer
+ * cryptotests.bench.iterationTime to collect enough samples.
+ */
+public class KeyPairGeneratorBenchmark extends AlgorithmBenchmark {
+
+    private static final int POOL_SIZE = 16;
+    private static final int POOL_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private final List<BenchmarkResult> generated = new ArrayList<>();
+
+    public static void main(String[] args) {
+        KeyPairGeneratorBenchmark benchmark = new KeyPairGeneratorBenchmark();
+        benchmark.doBenchmark();
+        benchmark.printLongTail();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "KeyPairGenerator";
+    }
+
+    /**
+     * @return key sizes to measure, 0 is default size of generator. Sizes differ
+     * by family too much to be set by cryptotests.bench.sizes
+     */
+    static int[] getKeySizes(String algorithm) {
+        //exact names, EdDSA, XDH or ML-DSA contain the family names but take no key size
+        switch (algorithm) {
+            case "EC":
+                return new int[]{256, 384, 521};
+            case "RSA":
+            case "RSASSA-PSS":
+            case "PSS":
+                return new int[]{2048, 3072, 4096};
+            case "DSA":
+            case "DH":
+            case "DiffieHellman":
+                return new int[]{2048, 3072};
+            default:
+                //named curves and parameter sets have one size
+                return new int[]{0};
+        }
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        for (int keySize : getKeySizes(service.getAlgorithm())) {
+            String param = keySize > 0 ? keySize + "b" : "default";
+            final KeyPairGenerator kpg = KeyPairGenerator.getInstance(service.getAlgorithm(), service.getProvider());
+            if (keySize > 0) {
+                kpg.initialize(keySize);
+            }
+            BenchmarkResult direct = measure(service, "generate", param, 0, true, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    return kpg.generateKeyPair();
+                }
+            });
+            generated.add(direct);
+            //p50 is in microseconds, filling is given four times the time it should take
+            long fillTimeout = Math.max(Settings.BenchmarkSettings.iterationTime * 10L,
+                    (long) (direct.getLatencies()[0] / 1000 * POOL_SIZE * 4 / POOL_THREADS));
+            try (KeyPairPool pool = new KeyPairPool(service.getAlgorithm(), keySize, service.getProvider(), POOL_SIZE, POOL_THREADS)) {
+                measurePooled(service, param, pool, fillTimeout);
+            }
+        }
+    }
+
+    /**
+     * Like measure, but each iteration waits for the pool to get full and
+     * then takes POOL_SIZE keys. Iterations running for given time would
+     * drain the pool in warmup, and measure generation on demand competing
+     * with the background threads instead.
+     */
+    private void measurePooled(Provider.Service service, String param, KeyPairPool pool, long fillTimeout) throws Exception {
+        for (int i = 0; i < Settings.BenchmarkSettings.warmupIterations; i++) {
+            takeAll(pool, null, fillTimeout);
+        }
+        long hits = pool.getHits();
+        long misses = pool.getMisses();
+        LatencyRecorder recorder = new LatencyRecorder();
+        double[] scores = new double[Settings.BenchmarkSettings.iterations];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = takeAll(pool, recorder, fillTimeout);
+        }
+        hits = pool.getHits() - hits;
+        misses = pool.getMisses() - misses;
+        BenchmarkResult r = addResult(new BenchmarkResult(service.getProvider().getName(), service.getAlgorithm(),
+                "pooled", param, "ops/s", scores, BenchmarkResult.getLatencies(recorder)));
+        System.out.println(String.format(Locale.US, "%-60s pool hits: %d, generated on demand: %d (%.1f%% hits)",
+                r.getKey(), hits, misses, hits * 100d / Math.max(1, hits + misses)));
+    }
+
+    /**
+     * @return keys taken per second
+     */
+    private static double takeAll(KeyPairPool pool, LatencyRecorder recorder, long fillTimeout) throws Exception {
+        if (!pool.awaitFull(fillTimeout, TimeUnit.MILLISECONDS) && pool.getFailure() != null) {
+            throw pool.getFailure();
+        }
+        long start = System.nanoTime();
+        long last = start;
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (pool.get() == null) {
+                throw new IllegalStateException("No key from pool");
+            }
+            long now = System.nanoTime();
+            if (recorder != null) {
+                recorder.record(now - last);
+            }
+            last = now;
+        }
+        return POOL_SIZE * 1e9 / Math.max(1, last - start);
+    }
+
+    private void printLongTail() {
+        List<BenchmarkResult> sorted = new ArrayList<>(generated);
+        Collections.sort(sorted, new Comparator<BenchmarkResult>() {
+            @Override
+            public int compare(BenchmarkResult o1, BenchmarkResult o2) {
+                return Double.compare(tail(o2), tail(o1));
+            }
+        });
+        System.out.println("Long tail of generation, by p99.9/p50:");
+        for (BenchmarkResult r : sorted) {
+            double[] l = r.getLatencies();
+            System.out.println(String.format(Locale.US, "%-60s %8.1fx  p50=%.1fms p99=%.1fms p99.9=%.1fms",
+                    r.getKey(), tail(r), l[0] / 1000, l[1] / 1000, l[2] / 1000));
+        }
+    }
+
+    private static double tail(BenchmarkResult r) {
+        double[] l = r.getLatencies();
+        return l[0] > 0 ? l[2] / l[0] : 0;
+    }
+}
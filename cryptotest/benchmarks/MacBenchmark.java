@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.tests.CipherTests;
+import cryptotest.tests.MacTests;
+import cryptotest.utils.AlgorithmBenchmark;
+
+import javax.crypto.Mac;
+import java.security.Provider;
+
+/**
+ * Throughput and per-message latency of all macs, for small (API token)
+ * and large messages. Compares doFinal() allocating the result with
+ * doFinal(byte[], int) reusing a buffer, and cloning initialized mac with
+ * init for each message (macs which can not be cloned, eg SslMacMD5 or most
+ * of PKCS11, skip only the clone variant). Keys are the ones MacTests use.
+ */
+public class MacBenchmark extends AlgorithmBenchmark {
+
+    public static void main(String[] args) {
+        new MacBenchmark().doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "Mac";
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        final Mac mac = Mac.getInstance(service.getAlgorithm(), service.getProvider());
+        final MacTests.MacSetup setup = MacTests.getMacSetup(service);
+        setup.init(mac);
+        Mac cloned;
+        try {
+            cloned = (Mac) mac.clone();
+        } catch (CloneNotSupportedException ex) {
+            System.out.println("Skipped clone: " + ex);
+            cloned = null;
+        }
+        final Mac template = cloned;
+        final byte[] out = new byte[mac.getMacLength()];
+        for (int size : Settings.BenchmarkSettings.getSizes(64, 1048576)) {
+            final byte[] message = CipherTests.generateBlock(size);
+            measure(service, "doFinal", size + "B", size, true, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    mac.update(message);
+                    return mac.doFinal();
+                }
+            });
+            measure(service, "doFinal-reuse", size + "B", size, true, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    mac.update(message);
+                    mac.doFinal(out, 0);
+                    return out;
+                }
+            });
+            measure(service, "reinit", size + "B", size, true, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    setup.init(mac);
+                    mac.update(message);
+                    mac.doFinal(out, 0);
+                    return out;
+                }
+            });
+            if (template == null) {
+                continue;
+            }
+            measure(service, "clone", size + "B", size, true, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    Mac m = (Mac) template.clone();
+                    m.update(message);
+                    m.doFinal(out, 0);
+                    return out;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.tests.CipherTests;
+import cryptotest.utils.AlgorithmBenchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.Provider;
+
+/**
+ * Streaming throughput of all digests, fed by byte[], heap ByteBuffer,
+ * direct ByteBuffer and MappedByteBuffer of a temporary file, in chunks
+ * of various sizes. Difference between the inputs shows providers which
+ * copy data on the update(ByteBuffer) path.
+ */
+public class MessageDigestBenchmark extends AlgorithmBenchmark {
+
+    //size of the mapped temporary file, chunks are read from it round robin
+    private static final int FILE_SIZE = 64 * 1024 * 1024;
+
+    private MappedByteBuffer mapped;
+
+    public static void main(String[] args) throws IOException {
+        MessageDigestBenchmark benchmark = new MessageDigestBenchmark();
+        benchmark.mapFile();
+        benchmark.doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "MessageDigest";
+    }
+
+    private void mapFile() throws IOException {
+        File f = File.createTempFile("cryptotest", ".bin");
+        f.deleteOnExit();
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw"); FileChannel ch = raf.getChannel()) {
+            //real data, sparse file of zeros would be mapped to one zero page
+            ByteBuffer block = ByteBuffer.wrap(CipherTests.generateBlock(1024 * 1024));
+            for (int written = 0; written < FILE_SIZE; written += block.capacity()) {
+                block.clear();
+                while (block.hasRemaining()) {
+                    ch.write(block);
+                }
+            }
+            mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+            mapped.load();
+        }
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        final MessageDigest md = MessageDigest.getInstance(service.getAlgorithm(), service.getProvider());
+        for (int size : Settings.BenchmarkSettings.getSizes(64, 1024, 16384, 1048576)) {
+            final int chunk = size;
+            final byte[] array = CipherTests.generateBlock(chunk);
+            measure(service, "byte[]", chunk + "B", chunk, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    md.update(array, 0, chunk);
+                    return md;
+                }
+            });
+            final ByteBuffer heap = ByteBuffer.wrap(array);
+            measure(service, "heap", chunk + "B", chunk, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    heap.clear();
+                    md.update(heap);
+                    return md;
+                }
+            });
+            final ByteBuffer direct = ByteBuffer.allocateDirect(chunk);
+            direct.put(array);
+            measure(service, "direct", chunk + "B", chunk, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    direct.clear();
+                    md.update(direct);
+                    return md;
+                }
+            });
+            if (mapped != null && chunk <= FILE_SIZE) {
+                final ByteBuffer file = mapped.duplicate();
+                measure(service, "mapped", chunk + "B", chunk, new Operation() {
+                    private int position;
+
+                    @Override
+                    public Object run() throws Exception {
+                        if (position + chunk > FILE_SIZE) {
+                            position = 0;
+                        }
+                        file.limit(position + chunk).position(position);
+                        md.update(file);
+                        position += chunk;
+                        return md;
+                    }
+                });
+            }
+            md.reset();
+        }
+    }
+}
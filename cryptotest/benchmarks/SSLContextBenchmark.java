@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.utils.AlgorithmBenchmark;
+import cryptotest.utils.AlgorithmIgnoredException;
+import cryptotest.utils.TlsLoopback;
+
+import java.nio.ByteBuffer;
+import java.security.Provider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+
+/**
+ * Full handshakes, resumed handshakes and application data throughput of
+ * all SSLContext services, for each cipher suite matching
+ * cryptotests.bench.suites. Client and server engines run in memory (see
+ * TlsLoopback), so the numbers do not depend on network. Context of a
+ * concrete protocol (TLSv1.2, DTLSv1.2...) enables only that protocol;
+ * suites which can not be negotiated by it are skipped.
+ */
+public class SSLContextBenchmark extends AlgorithmBenchmark {
+
+    //aead suites of TLS 1.3 and their ECDHE_RSA counterparts (default fixture has RSA keys) of older protocols
+    private static final String DEFAULT_SUITES = "TLS_AES_.*|TLS_CHACHA20_.*|TLS_ECDHE_RSA_WITH_(AES_.*_GCM|CHACHA20)_.*";
+
+    public static void main(String[] args) {
+        new SSLContextBenchmark().doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "SSLContext";
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(final Provider.Service service) throws Exception {
+        if (service.getAlgorithm().equals("Default")) {
+            //Default context is initialized by the provider, it has no key to serve
+            throw new AlgorithmIgnoredException();
+        }
+        final SSLContext context = TlsLoopback.createContext(service.getAlgorithm(), service.getProvider());
+        final String protocol = service.getAlgorithm().matches("D?TLSv.*") ? service.getAlgorithm() : null;
+        String suitesRegex = Settings.BenchmarkSettings.suites == null ? DEFAULT_SUITES : Settings.BenchmarkSettings.suites;
+        List<String> suites = new ArrayList<>();
+        for (String suite : context.getSupportedSSLParameters().getCipherSuites()) {
+            if (suite.matches(suitesRegex)) {
+                suites.add(suite);
+            }
+        }
+        for (final String suite : suites) {
+            TlsLoopback first = new TlsLoopback(context, true, protocol, suite);
+            try {
+                first.handshake();
+            } catch (SSLException ex) {
+                System.out.println(suite + " not negotiated: " + ex.getMessage());
+                continue;
+            }
+            System.out.println(suite + " negotiated as " + first.getClient().getSession().getProtocol());
+            measure(service, "fullHandshake", suite, 0, true, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    TlsLoopback loopback = new TlsLoopback(context, false, protocol, suite);
+                    loopback.handshake();
+                    return loopback;
+                }
+            });
+            if (isResumedBy(first, new TlsLoopback(context, true, protocol, suite))) {
+                measure(service, "resumedHandshake", suite, 0, true, new Operation() {
+                    @Override
+                    public Object run() throws Exception {
+                        TlsLoopback loopback = new TlsLoopback(context, true, protocol, suite);
+                        loopback.handshake();
+                        return loopback;
+                    }
+                });
+            } else {
+                System.out.println(suite + " session is not resumed, resumedHandshake skipped");
+            }
+            for (int size : Settings.BenchmarkSettings.getSizes(1024, 16384)) {
+                final TlsLoopback connected = new TlsLoopback(context, false, protocol, suite);
+                connected.handshake();
+                final ByteBuffer data = ByteBuffer.allocate(size);
+                measure(service, "transfer", suite + "-" + size + "B", size, new Operation() {
+                    @Override
+                    public Object run() throws Exception {
+                        data.clear();
+                        if (connected.transfer(data) != data.capacity()) {
+                            throw new SSLException("Server did not receive all " + data.capacity() + " bytes");
+                        }
+                        return data;
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Provider may silently do full handshake instead of resumption, which
+     * would be reported as resumed one. Resumed session has the id (TLS 1.2,
+     * DTLS) or at least the creation time (TLS 1.3, which issues new id) of
+     * the first one.
+     */
+    private static boolean isResumedBy(TlsLoopback first, TlsLoopback second) throws Exception {
+        //full handshake in the same millisecond would have the same creation time
+        Thread.sleep(2);
+        second.handshake();
+        SSLSession original = first.getClient().getSession();
+        SSLSession session = second.getClient().getSession();
+        return (original.getId().length > 0 && Arrays.equals(original.getId(), session.getId()))
+                || original.getCreationTime() == session.getCreationTime();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.utils.AlgorithmBenchmark;
+import cryptotest.utils.AlgorithmIgnoredException;
+import cryptotest.utils.BenchmarkResult;
+import cryptotest.utils.TlsLoopback;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.security.Provider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
+
+/**
+ * Long stream of application data sent between client and server engine
+ * (see TlsLoopback) of all SSLContext services, for each cipher suite
+ * matching cryptotests.bench.suites (all by default) the protocol can
+ * negotiate. Records are wrapped and unwrapped through pooled buffers, direct
+ * ones compared to heap ones, so the pipeline itself allocates nothing.
+ * Besides throughput, bytes allocated per record (by the engines, as counted
+ * by com.sun.management.ThreadMXBean) and number of GCs are reported at the
+ * end, biggest allocation first; those are not written to
+ * cryptotests.bench.output, where bigger score must mean better.
+ */
+public class SSLEnginePipelineBenchmark extends AlgorithmBenchmark {
+
+    private final List<String[]> allocations = new ArrayList<>();
+
+    public static void main(String[] args) {
+        new SSLEnginePipelineBenchmark().doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "SSLContext";
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        if (service.getAlgorithm().equals("Default")) {
+            //Default context is initialized by the provider, it has no key to serve
+            throw new AlgorithmIgnoredException();
+        }
+        SSLContext context = TlsLoopback.createContext(service.getAlgorithm(), service.getProvider());
+        String protocol = service.getAlgorithm().matches("D?TLSv.*") ? service.getAlgorithm() : null;
+        for (String suite : context.getSupportedSSLParameters().getCipherSuites()) {
+            if (Settings.BenchmarkSettings.suites != null && !suite.matches(Settings.BenchmarkSettings.suites)) {
+                continue;
+            }
+            TlsLoopback loopback = new TlsLoopback(context, false, protocol, suite);
+            try {
+                loopback.handshake();
+            } catch (SSLException ex) {
+                continue;
+            }
+            for (int size : Settings.BenchmarkSettings.getSizes(16384)) {
+                pipeline(service, loopback, suite, size, true);
+                pipeline(service, loopback, suite, size, false);
+            }
+        }
+    }
+
+    private void pipeline(Provider.Service service, TlsLoopback loopback, String suite, int size, boolean direct) throws Exception {
+        ByteBuffer data = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        int packetSize = loopback.getClient().getSession().getPacketBufferSize();
+        int appSize = loopback.getServer().getSession().getApplicationBufferSize();
+        ByteBuffer net = direct ? ByteBuffer.allocateDirect(packetSize) : ByteBuffer.allocate(packetSize);
+        ByteBuffer app = direct ? ByteBuffer.allocateDirect(appSize) : ByteBuffer.allocate(appSize);
+        for (int i = 0; i < Settings.BenchmarkSettings.warmupIterations; i++) {
+            runIteration(loopback, data, net, app);
+        }
+        double[] scores = new double[Settings.BenchmarkSettings.iterations];
+        long allocated = 0;
+        long gcs = 0;
+        long records = loopback.getRecordsPiped();
+        for (int i = 0; i < scores.length; i++) {
+            long[] r = runIteration(loopback, data, net, app);
+            scores[i] = r[0] * (double) size / r[1] * 1000d;
+            allocated += r[2];
+            gcs += r[3];
+        }
+        String param = suite + "-" + size + "B-" + (direct ? "direct" : "heap");
+        addResult(new BenchmarkResult(service.getProvider().getName(), service.getAlgorithm(), "pipeline", param, "MB/s", scores));
+        records = loopback.getRecordsPiped() - records;
+        allocations.add(new String[]{
+            service.getProvider().getName() + "/" + service.getAlgorithm() + " " + param,
+            allocated < 0 ? "n/a" : String.format(Locale.US, "%.1f", allocated / (double) records),
+            String.valueOf(gcs)});
+    }
+
+    /**
+     * @return chunks sent, nanoseconds, bytes allocated by this thread (-1 if
+     * not supported) and number of GCs
+     */
+    private static long[] runIteration(TlsLoopback loopback, ByteBuffer data, ByteBuffer net, ByteBuffer app) throws SSLException {
+        long allocatedBefore = getAllocatedBytes();
+        long gcsBefore = getCollectionCount();
+        long start = System.nanoTime();
+        long deadline = start + Settings.BenchmarkSettings.iterationTime * 1000000L;
+        long chunks = 0;
+        long now;
+        do {
+            data.clear();
+            if (loopback.pipe(data, net, app) != data.capacity()) {
+                throw new SSLException("Server did not receive all " + data.capacity() + " bytes");
+            }
+            chunks++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long allocatedAfter = getAllocatedBytes();
+        return new long[]{chunks, now - start,
+            allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore,
+            getCollectionCount() - gcsBefore};
+    }
+
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long getCollectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    @Override
+    protected void benchmarkServices(List<Provider.Service> services) {
+        Collections.sort(allocations, new Comparator<String[]>() {
+            @Override
+            public int compare(String[] o1, String[] o2) {
+                return Double.compare(parse(o2[1]), parse(o1[1]));
+            }
+
+            private double parse(String allocated) {
+                return allocated.equals("n/a") ? -1 : Double.parseDouble(allocated);
+            }
+        });
+        System.out.println("----------------------------------");
+        System.out.println(String.format(Locale.US, "%-70s %14s %6s", "allocations", "bytes/record", "GCs"));
+        for (String[] row : allocations) {
+            System.out.println(String.format(Locale.US, "%-70s %14s %6s", row[0], row[1], row[2]));
+        }
+    }
+}
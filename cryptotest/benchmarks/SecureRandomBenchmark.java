@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.utils.AlgorithmBenchmark;
+import cryptotest.utils.BenchmarkResult;
+
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Throughput of nextBytes of all SecureRandom services, for more buffer sizes
+ * and thread counts. With more threads, one instance shared by all of them is
+ * compared to an instance per thread. Then latency of generateSeed is measured.
+ * Unlike SecureRandomTests, blocking variants (NativePRNGBlocking) are measured
+ * too: every measurement runs on its own daemon thread, and when it does not
+ * finish within cryptotests.bench.timeout ms over its expected time, it is
+ * abandoned and rest of the service is skipped, as starving for entropy.
+ */
+public class SecureRandomBenchmark extends AlgorithmBenchmark {
+
+    private static final int SEED_SIZE = 32;
+
+    public static void main(String[] args) {
+        new SecureRandomBenchmark().doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "SecureRandom";
+    }
+
+    /**
+     * @return 1, number of cpus and twice the number of cpus, unless set by
+     * cryptotests.bench.threads
+     */
+    static int[] getThreadCounts() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return Settings.BenchmarkSettings.getThreads(cpus == 1 ? new int[]{1, 2} : new int[]{1, cpus, 2 * cpus});
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(final Provider.Service service) throws Exception {
+        final SecureRandom shared = SecureRandom.getInstance(service.getAlgorithm(), service.getProvider());
+        for (int size : Settings.BenchmarkSettings.getSizes(16, 256, 4096, 65536)) {
+            final byte[] bytes = new byte[size];
+            for (final int threads : getThreadCounts()) {
+                if (threads == 1) {
+                    guarded("nextBytes", new Callable<BenchmarkResult[]>() {
+                        @Override
+                        public BenchmarkResult[] call() throws Exception {
+                            return new BenchmarkResult[]{collect(service, "nextBytes", bytes.length + "B", bytes.length, false, new Operation() {
+                                @Override
+                                public Object run() throws Exception {
+                                    shared.nextBytes(bytes);
+                                    return bytes;
+                                }
+                            })};
+                        }
+                    });
+                    continue;
+                }
+                final Operation[] sharedOps = new Operation[threads];
+                final Operation[] ownOps = new Operation[threads];
+                for (int i = 0; i < threads; i++) {
+                    sharedOps[i] = nextBytes(shared, size);
+                    ownOps[i] = nextBytes(SecureRandom.getInstance(service.getAlgorithm(), service.getProvider()), size);
+                }
+                final String param = size + "B-" + threads + "t";
+                guarded("nextBytes", new Callable<BenchmarkResult[]>() {
+                    @Override
+                    public BenchmarkResult[] call() throws Exception {
+                        return new BenchmarkResult[]{
+                            collect(service, "nextBytes-shared", param, bytes.length, sharedOps),
+                            collect(service, "nextBytes-perThread", param, bytes.length, ownOps)};
+                    }
+                });
+            }
+        }
+        guarded("generateSeed", new Callable<BenchmarkResult[]>() {
+            @Override
+            public BenchmarkResult[] call() throws Exception {
+                return new BenchmarkResult[]{collect(service, "generateSeed", SEED_SIZE + "B", 0, true, new Operation() {
+                    @Override
+                    public Object run() throws Exception {
+                        return shared.generateSeed(SEED_SIZE);
+                    }
+                })};
+            }
+        });
+    }
+
+    /**
+     * Own buffer for every thread, threads share at most the SecureRandom.
+     */
+    private static Operation nextBytes(final SecureRandom random, int size) {
+        final byte[] bytes = new byte[size];
+        return new Operation() {
+            @Override
+            public Object run() throws Exception {
+                random.nextBytes(bytes);
+                return bytes;
+            }
+        };
+    }
+
+    /**
+     * Runs measurement on daemon thread, so a measurement blocked on entropy
+     * source (which can not be interrupted) does not block the benchmark.
+     * Results are added only when the measurement finished in time, the
+     * abandoned one may still finish later, with partial data.
+     */
+    private void guarded(String operation, Callable<BenchmarkResult[]> measurement) throws Exception {
+        // measure() with more threads runs warmup and measurement twice
+        long timeout = 2L * (Settings.BenchmarkSettings.warmupIterations + Settings.BenchmarkSettings.iterations)
+                * Settings.BenchmarkSettings.iterationTime + Settings.BenchmarkSettings.timeout;
+        FutureTask<BenchmarkResult[]> task = new FutureTask<>(measurement);
+        Thread t = new Thread(task, "cryptotest-guarded-" + operation);
+        t.setDaemon(true);
+        t.start();
+        BenchmarkResult[] results;
+        try {
+            results = task.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            t.interrupt();
+            System.out.println(operation + " blocked, stack of the measuring thread:\n"
+                    + Arrays.toString(t.getStackTrace()).replace(", ", "\n    "));
+            throw new Exception(operation + " did not finish in " + timeout + "ms, entropy source is probably starving", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            throw ex;
+        }
+        for (BenchmarkResult r : results) {
+            addResult(r);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.benchmarks;
+
+import cryptotest.Settings;
+import cryptotest.tests.CipherTests;
+import cryptotest.tests.SignatureTests;
+import cryptotest.utils.AlgorithmBenchmark;
+
+import java.security.KeyPair;
+import java.security.Provider;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.PSSParameterSpec;
+
+/**
+ * Sign and verify throughput of all signatures, with latency percentiles,
+ * as slow outliers matter more than mean for handshakes.
+ * Each operation includes init, so it is what single handshake pays.
+ * Keys and parameters are the ones SignatureTests use.
+ */
+public class SignatureBenchmark extends AlgorithmBenchmark {
+
+    public static void main(String[] args) {
+        new SignatureBenchmark().doBenchmark();
+    }
+
+    @Override
+    public String getTestedPart() {
+        return "Signature";
+    }
+
+    @Override
+    protected void benchmarkAlgorithm(Provider.Service service) throws Exception {
+        SignatureTests.checkIgnored(service);
+        final Signature sig = Signature.getInstance(service.getAlgorithm(), service.getProvider());
+        final KeyPair kp = SignatureTests.getKeyPair(service);
+        PSSParameterSpec pssParam = SignatureTests.getPssParameterSpec(service);
+        if (pssParam != null) {
+            sig.setParameter(pssParam);
+        }
+        int[] sizes = Settings.BenchmarkSettings.getSizes(32, 1024, 65536);
+        if (service.getAlgorithm().startsWith("NONE")) {
+            //NONEwithDSA needs 20bytes, others are limited by key size
+            sizes = new int[]{20};
+        }
+        for (int size : sizes) {
+            final byte[] message = CipherTests.generateBlock(size);
+            sig.initSign(kp.getPrivate());
+            sig.update(message);
+            final byte[] signature = sig.sign();
+            measure(service, "sign", size + "B", 0, true, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    sig.initSign(kp.getPrivate());
+                    sig.update(message);
+                    return sig.sign();
+                }
+            });
+            measure(service, "verify", size + "B", 0, true, new Operation() {
+                @Override
+                public Object run() throws Exception {
+                    sig.initVerify(kp.getPublic());
+                    sig.update(message);
+                    if (!sig.verify(signature)) {
+                        throw new SignatureException("Signature not verified");
+                    }
+                    return signature;
+                }
+            });
+        }
+    }
+}
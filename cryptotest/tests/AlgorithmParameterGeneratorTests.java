@@ -29,6 +29,7 @@
  * @library /
  * @build cryptotest.tests.AlgorithmParameterGeneratorTests
  *        cryptotest.Settings
+ *        cryptotest.utils.AlgorithmCheck
  *        cryptotest.utils.AlgorithmInstantiationException
  *        cryptotest.utils.AlgorithmRunException
  *        cryptotest.utils.AlgorithmTest
@@ -38,6 +39,8 @@
 
 package cryptotest.tests;
 
+import cryptotest.Settings;
+import cryptotest.utils.AlgorithmCheck;
 import cryptotest.utils.AlgorithmInstantiationException;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
@@ -92,4 +95,16 @@ public class AlgorithmParameterGeneratorTests extends AlgorithmTest {
     public String getTestedPart() {
         return "AlgorithmParameterGenerator";
     }
+
+    @Override
+    public long getCheckTimeout() {
+        //default size parameters are searched for, which takes from under a second to a minute
+        return 3L * Settings.checkTimeout;
+    }
+
+    @Override
+    protected long getCheckTimeout(AlgorithmCheck check) {
+        //fast previous run does not mean fast next one
+        return getCheckTimeout();
+    }
 }
@@ -37,6 +37,8 @@
  *        cryptotest.utils.AlgorithmRunException
  *        cryptotest.utils.AlgorithmTest
  *        cryptotest.utils.KeysNaiveGenerator
+ *        cryptotest.utils.PkiFixtures
+ *        cryptotest.utils.PkiGenerator
  *        cryptotest.utils.TestResult
  * @run main/othervm cryptotest.tests.CertPathBuilderTests
  */
@@ -47,25 +49,21 @@ import cryptotest.utils.AlgorithmInstantiationException;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
 import cryptotest.utils.KeysNaiveGenerator;
+import cryptotest.utils.PkiFixtures;
 import cryptotest.utils.TestResult;
 import sun.security.x509.X509CertImpl;
 import java.security.cert.X509Certificate;
-import java.io.InputStream;
 
 import javax.security.auth.x500.X500Principal;
 import java.io.IOException;
-import java.security.InvalidAlgorithmParameterException;
+import java.security.GeneralSecurityException;
 import java.security.KeyPair;
-import java.security.KeyStore;
-import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
 import java.security.PublicKey;
 import java.security.cert.CertPathBuilder;
-import java.security.cert.CertPathBuilderException;
 import java.security.cert.CertStore;
 import java.security.cert.Certificate;
-import java.security.cert.CertificateException;
 import java.security.cert.CollectionCertStoreParameters;
 import java.security.cert.PKIXBuilderParameters;
 import java.security.cert.TrustAnchor;
@@ -87,14 +85,12 @@ public class CertPathBuilderTests extends AlgorithmTest {
     protected void checkAlgorithm(Provider.Service service, String alias) throws AlgorithmInstantiationException, AlgorithmRunException {
         try {
             CertPathBuilder certPathBuilder = CertPathBuilder.getInstance(alias, service.getProvider());
+            instantiated();
 
-            KeyStore ks = KeyStore.getInstance("JKS");
-            try (InputStream is = CertPathValidatorTests.class.getResourceAsStream("test.jks")) {
-                ks.load(is, "password".toCharArray());
-            }
+            PkiFixtures.Fixture fixture = PkiFixtures.getDefault();
 
-            Certificate serverCrt = ks.getCertificate("server");
-            Certificate caCrt = ks.getCertificate("ca");
+            Certificate serverCrt = fixture.hierarchy.leaves.get(0).certificate;
+            Certificate caCrt = fixture.hierarchy.cas.get(1).certificate;
 
             CertStore cs = CertStore.getInstance("Collection",
                 new CollectionCertStoreParameters(
@@ -114,10 +110,10 @@ public class CertPathBuilderTests extends AlgorithmTest {
             params.addCertStore(cs);
 
             certPathBuilder.build(params);
-        } catch (IOException | CertificateException | InvalidAlgorithmParameterException | CertPathBuilderException | KeyStoreException e) {
-            throw new AlgorithmRunException(e);
         } catch (NoSuchAlgorithmException e) {
             throw new AlgorithmInstantiationException(e);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new AlgorithmRunException(e);
         }
     }
 
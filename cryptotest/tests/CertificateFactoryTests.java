@@ -32,6 +32,8 @@
  *        cryptotest.utils.AlgorithmInstantiationException
  *        cryptotest.utils.AlgorithmRunException
  *        cryptotest.utils.AlgorithmTest
+ *        cryptotest.utils.PkiFixtures
+ *        cryptotest.utils.PkiGenerator
  *        cryptotest.utils.TestResult
  * @run main/othervm cryptotest.tests.CertificateFactoryTests
  */
@@ -41,57 +43,34 @@ package cryptotest.tests;
 import cryptotest.utils.AlgorithmInstantiationException;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
+import cryptotest.utils.PkiFixtures;
 import cryptotest.utils.TestResult;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Provider;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
+import java.util.Base64;
 
 public class CertificateFactoryTests extends AlgorithmTest {
 
-    /* 
-    certificate used for testing, generated using:
-    openssl req -x509 -newkey rsa:4096 -keyout key.pem -out cert.pem -days 9999
+    /**
+     * PEM encoding of the root certificate of PkiFixtures.getDefault(),
+     * the same way openssl would write it.
      */
-    String certString
-            = "-----BEGIN CERTIFICATE-----\n"
-            + "MIIF0TCCA7mgAwIBAgIJANwEZ6nMcMK+MA0GCSqGSIb3DQEBCwUAMH8xCzAJBgNV\n"
-            + "BAYTAkNaMRcwFQYDVQQIDA5DemVjaCBSZXB1YmxpYzENMAsGA1UEBwwEQnJubzEQ\n"
-            + "MA4GA1UECgwHVGVzdGluZzEUMBIGA1UEAwwLZXhhbXBsZS5jb20xIDAeBgkqhkiG\n"
-            + "9w0BCQEWEWVtYWlsQGV4YW1wbGUuY29tMB4XDTE3MDYwNzE2MTk1NVoXDTQ0MTAy\n"
-            + "MjE2MTk1NVowfzELMAkGA1UEBhMCQ1oxFzAVBgNVBAgMDkN6ZWNoIFJlcHVibGlj\n"
-            + "MQ0wCwYDVQQHDARCcm5vMRAwDgYDVQQKDAdUZXN0aW5nMRQwEgYDVQQDDAtleGFt\n"
-            + "cGxlLmNvbTEgMB4GCSqGSIb3DQEJARYRZW1haWxAZXhhbXBsZS5jb20wggIiMA0G\n"
-            + "CSqGSIb3DQEBAQUAA4ICDwAwggIKAoICAQCn8oY5vhqFT4eyDNxgvM282P5LF5cb\n"
-            + "GC4paJUj3YziEDWPTah5kYnCFIONJI74iTOt2/ftjfjIX1zeVeJmZVkF4N3fmxWr\n"
-            + "1WG1WaHUxXhcVQopZy7WGRvpQVUDo/eSxt34tBSUpkE0Nzrtt4kcjpFSxoCVNeRI\n"
-            + "oPUT/y2tSi33pH52RHkFyb37zjgAWLTtMGA5hNUdZ7hjyzzp7UeQbm0Wu+ndbAut\n"
-            + "Ybc4EJXB9l1Ia879lcGH4+IpspDWP1T8P31N+qJykHQVkwOSlycbPrxDGA6DjACV\n"
-            + "OV5v/kAidqHWHCQGHYsqWfRQWylT/g84NpakHy1ubVkZuzEydK4qGi4qQGWrxTkU\n"
-            + "b3fUq2kWb6ILFSWLuLHe0Q9QLZkysK4M0eDXV6/qV1iYbYngsFPKZzH7EizL0DmY\n"
-            + "aqnpF2ZZ1Nr57TXxLQAo6ckEfaZSctBrqYvgyhwN9iX2z2Xv5skOBeWqrTmVQeLo\n"
-            + "lZkEeimgm8Gh/w5NHhaJ04OuuX5D0FAkLViLMXv62CnKnYejr+49VAhmOVkHFkLW\n"
-            + "ok3Vumr7+PJbsiz4w8tfLRFllgG1P8Qqb2YfMiTKOxemLnw1yjfLaJHtuTF92rCc\n"
-            + "QvMzAiDm4c56+tq+n2RMZ0WhzrvB1wKBLmv91ISEDhSDq0PBtMY/rkKJCmCY7n1S\n"
-            + "EXNJ/9IpRx8LmwIDAQABo1AwTjAdBgNVHQ4EFgQU29O5KKvS2ZoFcZnANd9f72gc\n"
-            + "93YwHwYDVR0jBBgwFoAU29O5KKvS2ZoFcZnANd9f72gc93YwDAYDVR0TBAUwAwEB\n"
-            + "/zANBgkqhkiG9w0BAQsFAAOCAgEAbFLYEPK7HMKdfXVrXlyn2AdQJahWuEdplll7\n"
-            + "71spW7TzdSXr8jh/MwKiHF+3TXVRhpoYBmjdWqLQsBweyfwQmLYXxi68ATD+Jsg7\n"
-            + "vkTQ1Xe4gOeQhM57rKVY2xyS9bS6rucWLWvoBR75mlQWnEfIkIWyhAnfj8zuKSCA\n"
-            + "yQTsJKMHQBrX+vALTBsm3MFiN41y8VtkORtCii3w4y6rEg/iEIJ0Eq3rzzNoDKIC\n"
-            + "3tNk4UZ4Ye3+IeeJxT9NJvyASRMrSLOPfvSK69sbvXP5DuD5x6f5t29iDZJMs8cG\n"
-            + "EQbUVTU13VSP/9FrCsjqS/uk2c9sNPPuGZGgMBUbITXiS1+7IgruL34e7VWA/p9c\n"
-            + "k/hcWxGIvHd64mP4FISX0xWFUCDbBr7oVTFWtuBheJUT82KXgbqjrS6ssFRqzfj5\n"
-            + "SOjbbdhAC6PuuNy3bT+pYJyz/NMfUkGbJVIIcDG/Dbn1pEWb/1Q/LmB415vdeU9+\n"
-            + "5x7EMPl0cX1KkOv/hzYMMDNjXptm6rOzZZZJfkdPge/jhPOU82RJvNuFOELcJ17m\n"
-            + "Lm1Wu9rAo6zAK/HzMlig4iWg48U316polHi6gnYOpO8ADXKeSdM/XUh06DCnguTv\n"
-            + "0NqoU+HQzZKhkcJgyqf58UUWb4Ng6Jo3l2je3jgBqWC0p7vgSYV2/7wLekGmvD9g\n"
-            + "ZdOpVzI=\n"
-            + "-----END CERTIFICATE-----\n";
+    private static String getCertString() throws GeneralSecurityException, IOException {
+        byte[] der = PkiFixtures.getDefault().hierarchy.root.certificate.getEncoded();
+        Base64.Encoder encoder = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII));
+        return "-----BEGIN CERTIFICATE-----\n"
+                + encoder.encodeToString(der) + "\n"
+                + "-----END CERTIFICATE-----\n";
+    }
 
     /**
      * @param args the command line arguments
@@ -106,6 +85,12 @@ public class CertificateFactoryTests extends AlgorithmTest {
     @Override
     protected void checkAlgorithm(Provider.Service service, String alias) throws
             AlgorithmInstantiationException, AlgorithmRunException {
+        String certString;
+        try {
+            certString = getCertString();
+        } catch (GeneralSecurityException | IOException ex) {
+            throw new AlgorithmRunException(ex);
+        }
         CertificateFactory cf = null;
         try {
             cf = CertificateFactory.getInstance(alias, service.getProvider());
@@ -44,15 +44,13 @@ package cryptotest.tests;
 
 import cryptotest.Settings;
 import cryptotest.utils.AlgorithmInstantiationException;
+import cryptotest.utils.ApiBridge;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
 import cryptotest.utils.TestResult;
 
 import javax.crypto.*;
 import javax.crypto.spec.IvParameterSpec;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
-import java.lang.reflect.InvocationTargetException;
 import java.security.*;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidKeySpecException;
@@ -73,77 +71,32 @@ public class CipherTests extends AlgorithmTest {
         r.assertItself();
     }
 
+    // reflection used so it would compile on jdk 8, which does not have these classes
+    private static final ApiBridge CHACHA20_PARAMETER_SPEC = ApiBridge.constructor("javax.crypto.spec.ChaCha20ParameterSpec", byte[].class, int.class);
+    private static final ApiBridge HPKE_OF = ApiBridge.method("javax.crypto.spec.HPKEParameterSpec", "of", int.class, int.class, int.class);
+    private static final ApiBridge HPKE_KEM_DHKEM_X25519_HKDF_SHA256 = ApiBridge.staticField("javax.crypto.spec.HPKEParameterSpec", "KEM_DHKEM_X25519_HKDF_SHA256");
+    private static final ApiBridge HPKE_KDF_HKDF_SHA256 = ApiBridge.staticField("javax.crypto.spec.HPKEParameterSpec", "KDF_HKDF_SHA256");
+    private static final ApiBridge HPKE_AEAD_AES_256_GCM = ApiBridge.staticField("javax.crypto.spec.HPKEParameterSpec", "AEAD_AES_256_GCM");
+
     @Override
     protected void checkAlgorithm(Provider.Service service, String alias) throws
             AlgorithmInstantiationException, AlgorithmRunException {
         try {
             Cipher c = Cipher.getInstance(alias, service.getProvider());
-            int blockSize = c.getBlockSize();
-            byte[] b = generateBlock(blockSize > 0 ? blockSize : 16);
-
-            Key key = null;
-            AlgorithmParameterSpec initSpec = null;
-            if (service.getAlgorithm().contains("RSA")) {
-                key = getRsaPrivateKey(service.getProvider());
-            } else if (service.getAlgorithm().contains("PBE")) {
-                key = getPbeKey();
-            } else if (service.getAlgorithm().contains("DESede")) {
-                key = getDesedeKey(service.getProvider());
-            } else if (service.getAlgorithm().contains("DES")) {
-                key = getDesKey(service.getProvider());
-            } else if (service.getAlgorithm().contains("Blowfish")) {
-                key = getBlowfishKey(service.getProvider());
-            } else if (service.getAlgorithm().contains("AES_192")
-                    || service.getAlgorithm().contains("AESWrap_192")) {
-                key = getAesKey192(service.getProvider());
-            } else if (service.getAlgorithm().contains("AES_256")
-                    || service.getAlgorithm().contains("AESWrap_256")) {
-                key = getAesKey256(service.getProvider());
-            } else if (service.getAlgorithm().contains("AES")) {
-                key = getAesKey(service.getProvider());
-            } else if (service.getAlgorithm().contains("RC2")) {
-                key = getRc2Key();
-            } else if (service.getAlgorithm().contains("ARCFOUR")) {
-                key = getArcFourKey(service.getProvider());
-            } else if (service.getAlgorithm().contains("ChaCha20-Poly1305")) {
-                KeyGenerator kg = KeyGenerator.getInstance("ChaCha20");
-                b = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
-                initSpec = new IvParameterSpec(b);
-                kg.init(256);
-                key = KeyGenerator.getInstance("ChaCha20").generateKey();
-
-            } else if (service.getAlgorithm().contains("ChaCha20")) {
-                KeyGenerator kg = KeyGenerator.getInstance("ChaCha20");
-                b = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
-                // use reflect api, jdk 8 does not have this class
-                Class<?> chacha = Class.forName("javax.crypto.spec.ChaCha20ParameterSpec");
-                Constructor chachaConstr = chacha.getConstructor(byte[].class, int.class);
-                initSpec = (AlgorithmParameterSpec) chachaConstr.newInstance(b, 10);
-                kg.init(256);
-                key = KeyGenerator.getInstance("ChaCha20").generateKey();
-            } else if (service.getAlgorithm().contains("HPKE")) {
-                Class<?> hpkeCls = Class.forName("javax.crypto.spec.HPKEParameterSpec");
-                Method hpkeM = hpkeCls.getDeclaredMethod("of", int.class, int.class, int.class);
-                int hpkeP1 = (Integer) hpkeCls.getDeclaredField("KEM_DHKEM_X25519_HKDF_SHA256").get(null);
-                int hpkeP2 = (Integer) hpkeCls.getDeclaredField("KDF_HKDF_SHA256").get(null);
-                int hpkeP3 = (Integer) hpkeCls.getDeclaredField("AEAD_AES_256_GCM").get(null);
-                // based on: https://github.com/openjdk/jdk/blob/45a2fd37f0ebda35789006b4e607422f7c369017/test/jdk/com/sun/crypto/provider/Cipher/HPKE/Compliance.java#L65
-                initSpec = (AlgorithmParameterSpec) hpkeM.invoke(null, hpkeP1, hpkeP2, hpkeP3);
-                key = KeyPairGenerator.getInstance("X25519").generateKeyPair().getPublic();
-            }
-            if (initSpec != null){
-                c.init(Cipher.ENCRYPT_MODE, key, initSpec);
+            instantiated();
+            CipherSetup setup = getCipherSetup(service, c.getBlockSize());
+            keysReady();
+            if (setup.initSpec != null){
+                c.init(Cipher.ENCRYPT_MODE, setup.key, setup.initSpec);
             }
-            else if (service.getAlgorithm().toLowerCase().contains("wrap")
-                || service.getAlgorithm().contains("KW")
-                || service.getAlgorithm().contains("KWP")) {
-                c.init(Cipher.WRAP_MODE, key);
-                AlgorithmTest.printResult(c.wrap(key));
+            else if (setup.wrap) {
+                c.init(Cipher.WRAP_MODE, setup.key);
+                AlgorithmTest.printResult(c.wrap(setup.key));
             } else {
-                c.init(Cipher.ENCRYPT_MODE, key);
-                AlgorithmTest.printResult(c.doFinal(b));
+                c.init(Cipher.ENCRYPT_MODE, setup.key);
+                AlgorithmTest.printResult(c.doFinal(setup.block));
             }
-        } catch(NoSuchAlgorithmException | ClassNotFoundException | NoSuchMethodException | NoSuchFieldException | NoSuchPaddingException | InvalidKeySpecException | InvalidAlgorithmParameterException | InstantiationException | IllegalAccessException | InvocationTargetException | NullPointerException ex){
+        } catch(NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeySpecException | InvalidAlgorithmParameterException | ReflectiveOperationException | NullPointerException ex){
             throw new AlgorithmInstantiationException(ex);
         } catch (IllegalBlockSizeException | BadPaddingException | InvalidKeyException |
                 UnsupportedOperationException | InvalidParameterException | ProviderException ex) {
@@ -152,12 +105,94 @@ public class CipherTests extends AlgorithmTest {
 
     }
 
+    /**
+     * How to use the cipher: key (and its counterpart for decryption),
+     * optional init parameters and a block of data to encrypt.
+     */
+    public static class CipherSetup {
+
+        public Key key;
+        public Key decryptionKey;
+        public AlgorithmParameterSpec initSpec;
+        public byte[] block;
+        public boolean wrap;
+    }
+
+    /**
+     * Selects key and parameters for cipher service, shared with CipherBenchmark.
+     * Setup is guessed from algorithm name, not from alias.
+     */
+    public static CipherSetup getCipherSetup(Provider.Service service, int blockSize) throws
+            NoSuchAlgorithmException, InvalidKeySpecException, InvalidAlgorithmParameterException,
+            ReflectiveOperationException {
+        CipherSetup setup = new CipherSetup();
+        setup.block = generateBlock(blockSize > 0 ? blockSize : 16);
+        if (service.getAlgorithm().contains("RSA")) {
+            KeyPair kp = getRsaKeyPair(service.getProvider());
+            setup.key = kp.getPrivate();
+            setup.decryptionKey = kp.getPublic();
+        } else if (service.getAlgorithm().contains("PBE")) {
+            setup.key = getPbeKey();
+        } else if (service.getAlgorithm().contains("DESede")) {
+            setup.key = getDesedeKey(service.getProvider());
+        } else if (service.getAlgorithm().contains("DES")) {
+            setup.key = getDesKey(service.getProvider());
+        } else if (service.getAlgorithm().contains("Blowfish")) {
+            setup.key = getBlowfishKey(service.getProvider());
+        } else if (service.getAlgorithm().contains("AES_192")
+                || service.getAlgorithm().contains("AESWrap_192")) {
+            setup.key = getAesKey192(service.getProvider());
+        } else if (service.getAlgorithm().contains("AES_256")
+                || service.getAlgorithm().contains("AESWrap_256")) {
+            setup.key = getAesKey256(service.getProvider());
+        } else if (service.getAlgorithm().contains("AES")) {
+            setup.key = getAesKey(service.getProvider());
+        } else if (service.getAlgorithm().contains("RC2")) {
+            setup.key = getRc2Key();
+        } else if (service.getAlgorithm().contains("ARCFOUR")) {
+            setup.key = getArcFourKey(service.getProvider());
+        } else if (service.getAlgorithm().contains("ChaCha20-Poly1305")) {
+            KeyGenerator kg = KeyGenerator.getInstance("ChaCha20");
+            setup.block = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+            setup.initSpec = new IvParameterSpec(setup.block);
+            kg.init(256);
+            setup.key = kg.generateKey();
+        } else if (service.getAlgorithm().contains("ChaCha20")) {
+            KeyGenerator kg = KeyGenerator.getInstance("ChaCha20");
+            setup.block = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+            setup.initSpec = getChaCha20ParameterSpec(setup.block, 10);
+            kg.init(256);
+            setup.key = kg.generateKey();
+        } else if (service.getAlgorithm().contains("HPKE")) {
+            int hpkeP1 = (Integer) HPKE_KEM_DHKEM_X25519_HKDF_SHA256.invoke();
+            int hpkeP2 = (Integer) HPKE_KDF_HKDF_SHA256.invoke();
+            int hpkeP3 = (Integer) HPKE_AEAD_AES_256_GCM.invoke();
+            // based on: https://github.com/openjdk/jdk/blob/45a2fd37f0ebda35789006b4e607422f7c369017/test/jdk/com/sun/crypto/provider/Cipher/HPKE/Compliance.java#L65
+            setup.initSpec = (AlgorithmParameterSpec) HPKE_OF.invoke(hpkeP1, hpkeP2, hpkeP3);
+            KeyPair kp = KeyPairGenerator.getInstance("X25519").generateKeyPair();
+            setup.key = kp.getPublic();
+            setup.decryptionKey = kp.getPrivate();
+        }
+        if (setup.decryptionKey == null) {
+            setup.decryptionKey = setup.key;
+        }
+        setup.wrap = service.getAlgorithm().toLowerCase().contains("wrap")
+                || service.getAlgorithm().contains("KW")
+                || service.getAlgorithm().contains("KWP");
+        return setup;
+    }
+
+    public static AlgorithmParameterSpec getChaCha20ParameterSpec(byte[] nonce, int counter) throws
+            ReflectiveOperationException {
+        return (AlgorithmParameterSpec) CHACHA20_PARAMETER_SPEC.invoke(nonce, counter);
+    }
+
     @Override
     public String getTestedPart() {
         return "Cipher";
     }
 
-    private static byte[] generateBlock(int blockLength) {
+    public static byte[] generateBlock(int blockLength) {
         byte[] block = new byte[blockLength];
         for (int i = 0; i < blockLength; i++) {
             //block[i] = i + 1;
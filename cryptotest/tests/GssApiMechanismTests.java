@@ -235,5 +235,17 @@ public class GssApiMechanismTests extends AlgorithmTest {
         return "GssApiMechanism";
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        //sets java.security.krb5.conf for each check
+        return false;
+    }
+
+    @Override
+    public long getCheckTimeout() {
+        //kdc which does not answer is retried, each attempt waiting for its own timeout
+        return 3L * Settings.checkTimeout;
+    }
+
 
 }
@@ -43,6 +43,7 @@
 package cryptotest.tests;
 
 import cryptotest.utils.AlgorithmIgnoredException;
+import cryptotest.utils.ApiBridge;
 import cryptotest.utils.AlgorithmInstantiationException;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
@@ -52,7 +53,6 @@ import java.security.*;
 import java.security.spec.*;
 import javax.crypto.*;
 import javax.crypto.spec.*;
-import java.lang.reflect.*;
 
 public class KDFTests extends AlgorithmTest {
 
@@ -67,46 +67,43 @@ public class KDFTests extends AlgorithmTest {
         r.assertItself();
     }
 
+    // reflection used so it would compile on older jdks, which do not have KDF
+    private static final ApiBridge KDF_GET_INSTANCE = ApiBridge.method("javax.crypto.KDF", "getInstance", String.class, Provider.class);
+    private static final ApiBridge KDF_DERIVE_KEY = ApiBridge.method("javax.crypto.KDF", "deriveKey", String.class, AlgorithmParameterSpec.class);
+    private static final ApiBridge HKDF_OF_EXTRACT = ApiBridge.method("javax.crypto.spec.HKDFParameterSpec", "ofExtract");
+    private static final ApiBridge BUILDER_ADD_IKM = ApiBridge.method("javax.crypto.spec.HKDFParameterSpec$Builder", "addIKM", byte[].class);
+    private static final ApiBridge BUILDER_ADD_SALT = ApiBridge.method("javax.crypto.spec.HKDFParameterSpec$Builder", "addSalt", byte[].class);
+    private static final ApiBridge BUILDER_THEN_EXPAND = ApiBridge.method("javax.crypto.spec.HKDFParameterSpec$Builder", "thenExpand", byte[].class, int.class);
+
     public static Object _KDF_getInstance(String alias, Provider p) throws Exception {
-        Class c = Class.forName("javax.crypto.KDF");
-        Method m = c.getDeclaredMethod("getInstance", String.class, Provider.class);
-        return m.invoke(null, alias, p);
+        return KDF_GET_INSTANCE.call(alias, p);
     }
 
     public static Object _HKDFParameterSpec_ofExtract() throws Exception {
-        Class c = Class.forName("javax.crypto.spec.HKDFParameterSpec");
-        Method m = c.getDeclaredMethod("ofExtract");
-        return m.invoke(null);
+        return HKDF_OF_EXTRACT.call();
     }
 
     public static Object _Builder_addIKM(Object builder, byte[] ikm) throws Exception {
-        Class c = Class.forName("javax.crypto.spec.HKDFParameterSpec$Builder");
-        Method m = c.getDeclaredMethod("addIKM", byte[].class);
-        return m.invoke(builder, ikm);
+        return BUILDER_ADD_IKM.call(builder, ikm);
     }
 
     public static Object _Builder_addSalt(Object builder, byte[] salt) throws Exception {
-        Class c = Class.forName("javax.crypto.spec.HKDFParameterSpec$Builder");
-        Method m = c.getDeclaredMethod("addSalt", byte[].class);
-        return m.invoke(builder, salt);
+        return BUILDER_ADD_SALT.call(builder, salt);
     }
 
     public static AlgorithmParameterSpec _Builder_thenExpand(Object builder, byte[] info, int size) throws Exception {
-        Class c = Class.forName("javax.crypto.spec.HKDFParameterSpec$Builder");
-        Method m = c.getDeclaredMethod("thenExpand", byte[].class, int.class);
-        return (AlgorithmParameterSpec) m.invoke(builder, info, size);
+        return (AlgorithmParameterSpec) BUILDER_THEN_EXPAND.call(builder, info, size);
     }
 
     public static SecretKey _KDF_deriveKey(Object kdf, String alg, AlgorithmParameterSpec derivationSpec) throws Exception {
-        Class c = Class.forName("javax.crypto.KDF");
-        Method m = c.getDeclaredMethod("deriveKey", String.class, AlgorithmParameterSpec.class);
-        return (SecretKey) m.invoke(kdf, alg, derivationSpec);
+        return (SecretKey) KDF_DERIVE_KEY.call(kdf, alg, derivationSpec);
     }
 
     @Override
     protected void checkAlgorithm(Provider.Service service, String alias) throws AlgorithmInstantiationException, AlgorithmRunException {
         try {
             Object kdf = _KDF_getInstance(alias, service.getProvider());
+            instantiated();
             AlgorithmParameterSpec derivationSpec = null;
             if (service.getAlgorithm().startsWith("HKDF")) {
                 Object builder = _HKDFParameterSpec_ofExtract();
@@ -43,6 +43,7 @@
 package cryptotest.tests;
 
 import cryptotest.utils.AlgorithmIgnoredException;
+import cryptotest.utils.ApiBridge;
 import cryptotest.utils.AlgorithmInstantiationException;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
@@ -50,7 +51,6 @@ import cryptotest.utils.KeysNaiveGenerator;
 import cryptotest.utils.TestResult;
 import java.security.*;
 import javax.crypto.*;
-import java.lang.reflect.*;
 import java.util.Arrays;
 
 public class KEMTests extends AlgorithmTest {
@@ -65,61 +65,62 @@ public class KEMTests extends AlgorithmTest {
         r.assertItself();
     }
 
+    // reflection used so it would compile on jdks older than 21, which do not have KEM
+    private static final ApiBridge KEM_GET_INSTANCE = ApiBridge.method("javax.crypto.KEM", "getInstance", String.class, Provider.class);
+    private static final ApiBridge KEM_NEW_ENCAPSULATOR = ApiBridge.method("javax.crypto.KEM", "newEncapsulator", PublicKey.class);
+    private static final ApiBridge KEM_NEW_DECAPSULATOR = ApiBridge.method("javax.crypto.KEM", "newDecapsulator", PrivateKey.class);
+    private static final ApiBridge ENCAPSULATOR_ENCAPSULATE = ApiBridge.method("javax.crypto.KEM$Encapsulator", "encapsulate");
+    private static final ApiBridge ENCAPSULATED_ENCAPSULATION = ApiBridge.method("javax.crypto.KEM$Encapsulated", "encapsulation");
+    private static final ApiBridge ENCAPSULATED_KEY = ApiBridge.method("javax.crypto.KEM$Encapsulated", "key");
+    private static final ApiBridge DECAPSULATOR_DECAPSULATE = ApiBridge.method("javax.crypto.KEM$Decapsulator", "decapsulate", byte[].class);
+
     public static Object kem_getInstance(String alias, Provider p) throws Exception {
-        Class c = Class.forName("javax.crypto.KEM");
-        Method m = c.getDeclaredMethod("getInstance", String.class, Provider.class);
-        return m.invoke(null, alias, p);
+        return KEM_GET_INSTANCE.call(alias, p);
     }
 
     public static Object kem_newEncapsulator(Object kem, PublicKey key) throws Exception {
-        Class c = Class.forName("javax.crypto.KEM");
-        Method m = c.getDeclaredMethod("newEncapsulator", PublicKey.class);
-        return m.invoke(kem, key);
+        return KEM_NEW_ENCAPSULATOR.call(kem, key);
     }
 
     public static Object kem_newDecapsulator(Object kem, PrivateKey key) throws Exception {
-        Class c = Class.forName("javax.crypto.KEM");
-        Method m = c.getDeclaredMethod("newDecapsulator", PrivateKey.class);
-        return m.invoke(kem, key);
+        return KEM_NEW_DECAPSULATOR.call(kem, key);
     }
 
     public static Object encapsulator_encapsulate(Object e) throws Exception {
-        Class c = Class.forName("javax.crypto.KEM$Encapsulator");
-        Method m = c.getDeclaredMethod("encapsulate");
-        return m.invoke(e);
+        return ENCAPSULATOR_ENCAPSULATE.call(e);
     }
 
     public static byte[] encapsulated_encapsulation(Object e) throws Exception {
-        Class c = Class.forName("javax.crypto.KEM$Encapsulated");
-        Method m = c.getDeclaredMethod("encapsulation");
-        return (byte[]) m.invoke(e);
+        return (byte[]) ENCAPSULATED_ENCAPSULATION.call(e);
     }
 
     public static SecretKey encapsulated_key(Object e) throws Exception {
-        Class c = Class.forName("javax.crypto.KEM$Encapsulated");
-        Method m = c.getDeclaredMethod("key");
-        return (SecretKey) m.invoke(e);
+        return (SecretKey) ENCAPSULATED_KEY.call(e);
     }
 
     public static SecretKey decapsulator_decapsulate(Object d, Object o) throws Exception {
-        Class c = Class.forName("javax.crypto.KEM$Decapsulator");
-        Method m = c.getDeclaredMethod("decapsulate", byte[].class);
-        return (SecretKey) m.invoke(d, o);
+        return (SecretKey) DECAPSULATOR_DECAPSULATE.call(d, (byte[]) o);
+    }
+
+    /**
+     * Name of key pair generator of keys the kem works with.
+     */
+    public static String getKeyPairAlgorithm(Provider.Service service) {
+        if (service.getAlgorithm().equals("DHKEM")) {
+            return "X25519";
+        } else if (service.getAlgorithm().startsWith("ML-")) {
+            return service.getAlgorithm();
+        }
+        throw new RuntimeException("Unsupported KEM algorithm: " + service.getAlgorithm());
     }
 
     @Override
     protected void checkAlgorithm(Provider.Service service, String alias) throws AlgorithmInstantiationException, AlgorithmRunException {
         try {
             Object kem = kem_getInstance(alias, service.getProvider());
-            KeyPairGenerator kpg = null;
-            if (service.getAlgorithm().equals("DHKEM")) {
-                kpg = KeysNaiveGenerator.getKeyPairGenerator("X25519", service.getProvider());
-            } else if (service.getAlgorithm().startsWith("ML-")) {
-                kpg = KeysNaiveGenerator.getKeyPairGenerator(service.getAlgorithm(), service.getProvider());
-            } else {
-                throw new RuntimeException("Unsupported KEM algorithm: " + service.getAlgorithm());
-            }
-            KeyPair kp = kpg.generateKeyPair();
+            instantiated();
+            KeyPair kp = KeysNaiveGenerator.getKeyPair(getKeyPairAlgorithm(service), service.getProvider());
+            keysReady();
             Object sender = kem_newEncapsulator(kem, kp.getPublic());
             Object encapsulated = encapsulator_encapsulate(sender);
             byte[] encapsulation = encapsulated_encapsulation(encapsulated);
@@ -68,12 +68,9 @@ public class KeyAgreementTests extends AlgorithmTest {
                 
         try {
             KeyAgreement kagr = KeyAgreement.getInstance(alias, service.getProvider());
-            KeyPair keypair;
-            String keyType = alias;
-            if ("ECDH".equals(keyType)) {
-                keyType = "EC";
-            }
-            keypair = KeysNaiveGenerator.getKeyPairGenerator(keyType, service.getProvider()).generateKeyPair();
+            instantiated();
+            KeyPair keypair = KeysNaiveGenerator.getKeyPair(getKeyPairAlgorithm(alias), service.getProvider());
+            keysReady();
             PrivateKey pk = keypair.getPrivate();
             printResult(pk.getEncoded());
             PublicKey pubkey = keypair.getPublic();
@@ -100,6 +97,16 @@ public class KeyAgreementTests extends AlgorithmTest {
         }
     }
    
+    /**
+     * Name of key pair generator of keys the agreement works with.
+     */
+    public static String getKeyPairAlgorithm(String alias) {
+        if ("ECDH".equals(alias)) {
+            return "EC";
+        }
+        return alias;
+    }
+
     @Override
     public String getTestedPart() {
         return "KeyAgreement";
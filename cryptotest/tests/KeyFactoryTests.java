@@ -48,6 +48,7 @@ import cryptotest.utils.AlgorithmIgnoredException;
 import cryptotest.utils.AlgorithmInstantiationException;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
+import cryptotest.utils.ApiBridge;
 import cryptotest.utils.KeysNaiveGenerator;
 import cryptotest.utils.TestResult;
 import cryptotest.utils.Misc;
@@ -79,6 +80,7 @@ public class KeyFactoryTests extends AlgorithmTest {
             Provider p = service.getProvider();
             boolean pkcs11fips = Misc.isPkcs11Fips(p);
             KeyFactory keyFactory = KeyFactory.getInstance(alias, p);
+            instantiated();
             KeySpec privateKeySpec = null;
             KeySpec publicKeySpec = null;
             Key translated = null;
@@ -95,14 +97,13 @@ public class KeyFactoryTests extends AlgorithmTest {
             }
 
             if (service.getAlgorithm().equals("Ed25519") || service.getAlgorithm().equals("EdDSA") || service.getAlgorithm().equals("Ed448")) {
-                KeyPairGenerator kpg = KeysNaiveGenerator.getKeyPairGenerator(service.getAlgorithm(), p);
-                KeyPair kp = kpg.generateKeyPair();
+                KeyPair kp = KeysNaiveGenerator.getKeyPair(service.getAlgorithm(), p);
                 translated = keyFactory.translateKey(kp.getPublic());
                 if (!pkcs11fips) {
                     // pkcs11 provider in FIPS mode cannot obtain RAW keys
                     // reflection used so it would compile on old jdks
-                    Class privateKeyClass = Class.forName("java.security.spec.EdECPrivateKeySpec");
-                    Class publicKeyClass = Class.forName("java.security.spec.EdECPublicKeySpec");
+                    Class privateKeyClass = ApiBridge.findClass("java.security.spec.EdECPrivateKeySpec");
+                    Class publicKeyClass = ApiBridge.findClass("java.security.spec.EdECPublicKeySpec");
                     privateKeySpec = keyFactory.getKeySpec(kp.getPrivate(), privateKeyClass);
                     publicKeySpec = keyFactory.getKeySpec(kp.getPublic(), publicKeyClass);
                 }
@@ -115,8 +116,7 @@ public class KeyFactoryTests extends AlgorithmTest {
                     publicKeySpec = keyFactory.getKeySpec(kp.getPublic(), DSAPublicKeySpec.class);
                 }
             } else if (service.getAlgorithm().contains("RSASSA-PSS")) {
-                KeyPairGenerator kpg = KeysNaiveGenerator.getKeyPairGenerator("RSASSA-PSS", p);
-                KeyPair kp = kpg.generateKeyPair();
+                KeyPair kp = KeysNaiveGenerator.getKeyPair("RSASSA-PSS", p);
                 translated = keyFactory.translateKey(kp.getPublic());
                 if (!pkcs11fips) {
                     // pkcs11 provider in FIPS mode cannot obtain RAW keys
@@ -127,8 +127,7 @@ public class KeyFactoryTests extends AlgorithmTest {
                 || service.getAlgorithm().contains("X448")
                 || service.getAlgorithm().contains("XDH")
                 || service.getAlgorithm().startsWith("ML-")) {
-                KeyPairGenerator kpg = KeysNaiveGenerator.getKeyPairGenerator(service.getAlgorithm(), p);
-                KeyPair kp = kpg.generateKeyPair();
+                KeyPair kp = KeysNaiveGenerator.getKeyPair(service.getAlgorithm(), p);
                 translated = keyFactory.translateKey(kp.getPublic());
                 if (!pkcs11fips) {
                     // pkcs11 provider in FIPS mode cannot obtain RAW keys
@@ -144,7 +143,7 @@ public class KeyFactoryTests extends AlgorithmTest {
                     publicKeySpec = keyFactory.getKeySpec(kp.getPublic(), RSAPublicKeySpec.class);
                 }
             } else if (service.getAlgorithm().contains("EC")) {
-                KeyPair keyPair = KeysNaiveGenerator.getKeyPairGenerator("EC", p).genKeyPair();
+                KeyPair keyPair = KeysNaiveGenerator.getEcKeyPair(p);
                 translated = keyFactory.translateKey(keyPair.getPublic());
                 if (p.getName().equals("SunEC")) {
                     // These classes are specific to SunEC provider
@@ -154,7 +153,7 @@ public class KeyFactoryTests extends AlgorithmTest {
                     publicKeySpec = new ECPublicKeySpec(ecPublicKey.getW(), ecPublicKey.getParams());
                 }
             } else if (service.getAlgorithm().contains("DiffieHellman") || service.getAlgorithm().contains("DH")) {
-                KeyPair kp = KeysNaiveGenerator.getKeyPairGenerator("DiffieHellman", p).genKeyPair();
+                KeyPair kp = KeysNaiveGenerator.getKeyPair("DiffieHellman", p);
                 translated = keyFactory.translateKey(kp.getPublic());
                 if (!pkcs11fips) {
                     // pkcs11 provider in FIPS mode cannot obtain RAW keys
@@ -73,6 +73,7 @@ public class KeyGeneratorTests extends AlgorithmTest {
         try {
             Provider provider = service.getProvider();
             KeyGenerator kg = KeyGenerator.getInstance(alias, service.getProvider());
+            instantiated();
             int keyLength = 256;
             SecretKey result = null;
             if (service.getAlgorithm().contains("DESede")) {
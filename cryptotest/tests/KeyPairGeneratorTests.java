@@ -29,6 +29,7 @@
  * @library /
  * @build cryptotest.tests.KeyPairGeneratorTests
  *        cryptotest.Settings
+ *        cryptotest.utils.AlgorithmCheck
  *        cryptotest.utils.AlgorithmInstantiationException
  *        cryptotest.utils.AlgorithmRunException
  *        cryptotest.utils.AlgorithmTest
@@ -38,6 +39,7 @@
 
 package cryptotest.tests;
 
+import cryptotest.utils.AlgorithmCheck;
 import cryptotest.utils.AlgorithmInstantiationException;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
@@ -65,6 +67,7 @@ public class KeyPairGeneratorTests extends AlgorithmTest {
             AlgorithmInstantiationException, AlgorithmRunException {
         try {
             KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(alias, service.getProvider());
+            instantiated();
             int keySize = 512;
             if (service.getAlgorithm().contains("EC")) {
                 keySize = 256;
@@ -102,4 +105,10 @@ public class KeyPairGeneratorTests extends AlgorithmTest {
             throw new AlgorithmRunException(e);
         }
     }
+
+    @Override
+    protected long getCheckTimeout(AlgorithmCheck check) {
+        //RSA and DH keys of 2048 bits are searched for primes, fast previous run does not mean fast next one
+        return getCheckTimeout();
+    }
 }
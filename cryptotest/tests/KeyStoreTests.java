@@ -73,6 +73,7 @@ public class KeyStoreTests extends AlgorithmTest {
                 throw new AlgorithmIgnoredException();
             }
             KeyStore ks = KeyStore.getInstance(alias, service.getProvider());
+            instantiated();
             char[] pw = new char[]{'a', 'b'};
             if (alias.startsWith("PKCS11")) {
                 // in case of PKCS11 this is pin to PKCS11 token
@@ -49,6 +49,7 @@ import cryptotest.utils.KeysNaiveGenerator;
 import cryptotest.utils.TestResult;
 
 import java.security.*;
+import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidKeySpecException;
 import javax.crypto.KeyGenerator;
 import javax.crypto.Mac;
@@ -70,42 +71,10 @@ public class MacTests extends AlgorithmTest {
     protected void checkAlgorithm(Provider.Service service, String alias) throws AlgorithmInstantiationException, AlgorithmRunException {
         try {
             Mac md = Mac.getInstance(alias, service.getProvider());
+            instantiated();
             byte[] b = new byte[]{1, 2, 3};
-            Provider provider =  service.getProvider();
-            String algorithm = service.getAlgorithm();
-            String generatorAlgorithm;
-
-            if (algorithm.contains("PBE")) {
-                //cool, the pbe key is not ointerface pbekey, so salt do nto bubble formkey to algorithm:-/
-                Key key = KeysNaiveGenerator.getPbeKeyWithSalt();
-                //so we need to pass salt and ioterations by param
-                PBEParameterSpec parmas = new PBEParameterSpec(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, 5);
-                md.init(key, parmas);
-            } else {
-                KeyGenerator kg;
-                Key key;
-                try {
-                    generatorAlgorithm = algorithm;
-                    if (algorithm.startsWith("SslMac")) {
-                        /*
-                            Fixes SslMac* (e.g. SslMacMD5) as these do not have
-                            keygens, Hmac keygens seem to work there
-                        */
-                        generatorAlgorithm = algorithm.replace("SslMac", "Hmac");
-                    } else if (algorithm.startsWith("HmacSHA512/")) {
-                        /*
-                            Truncated SHA-512 variants (e.g. HmacSHA512/224)
-                        */
-                        generatorAlgorithm = "HmacSHA512";
-                    }
-                    kg = KeysNaiveGenerator.getKeyGenerator(generatorAlgorithm, provider);
-                    key = kg.generateKey();
-                } catch (NoSuchAlgorithmException e) {
-                    // use workaround, when there are no keygens available
-                    key = KeysNaiveGenerator.getMacKeyFromTlsKeyMaterial(provider);
-                }
-                md.init(key);
-            }
+            getMacSetup(service).init(md);
+            keysReady();
 
             md.update(b);
             printResult(md.doFinal());
@@ -117,6 +86,61 @@ public class MacTests extends AlgorithmTest {
 
     }
 
+    /**
+     * Key, and parameters for PBE macs, to init the mac with.
+     */
+    public static class MacSetup {
+
+        public Key key;
+        public AlgorithmParameterSpec params;
+
+        public void init(Mac mac) throws InvalidKeyException, InvalidAlgorithmParameterException {
+            if (params != null) {
+                mac.init(key, params);
+            } else {
+                mac.init(key);
+            }
+        }
+    }
+
+    public static MacSetup getMacSetup(Provider.Service service) throws NoSuchAlgorithmException,
+            InvalidKeySpecException, InvalidAlgorithmParameterException {
+        MacSetup setup = new MacSetup();
+        Provider provider = service.getProvider();
+        String algorithm = service.getAlgorithm();
+        String generatorAlgorithm;
+
+        if (algorithm.contains("PBE")) {
+            //cool, the pbe key is not ointerface pbekey, so salt do nto bubble formkey to algorithm:-/
+            setup.key = KeysNaiveGenerator.getPbeKeyWithSalt();
+            //so we need to pass salt and ioterations by param
+            setup.params = new PBEParameterSpec(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, 5);
+        } else {
+            KeyGenerator kg;
+            try {
+                generatorAlgorithm = algorithm;
+                if (algorithm.startsWith("SslMac")) {
+                    /*
+                        Fixes SslMac* (e.g. SslMacMD5) as these do not have
+                        keygens, Hmac keygens seem to work there
+                    */
+                    generatorAlgorithm = algorithm.replace("SslMac", "Hmac");
+                } else if (algorithm.startsWith("HmacSHA512/")) {
+                    /*
+                        Truncated SHA-512 variants (e.g. HmacSHA512/224)
+                    */
+                    generatorAlgorithm = "HmacSHA512";
+                }
+                kg = KeysNaiveGenerator.getKeyGenerator(generatorAlgorithm, provider);
+                setup.key = kg.generateKey();
+            } catch (NoSuchAlgorithmException e) {
+                // use workaround, when there are no keygens available
+                setup.key = KeysNaiveGenerator.getMacKeyFromTlsKeyMaterial(provider);
+            }
+        }
+        return setup;
+    }
+
     @Override
     public String getTestedPart() {
         return "Mac";
@@ -62,6 +62,7 @@ public class MessageDigestTests extends AlgorithmTest {
             AlgorithmInstantiationException, AlgorithmRunException {
         try {
             MessageDigest md = MessageDigest.getInstance(alias, service.getProvider());
+            instantiated();
             byte[] b = new byte[]{1, 2, 3};
             printResult(md.digest(b));
             printResult(md.digest());
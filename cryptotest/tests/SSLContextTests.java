@@ -72,6 +72,7 @@ public class SSLContextTests extends AlgorithmTest {
             AlgorithmRunException {
         try {
             SSLContext sslContext = SSLContext.getInstance(alias, service.getProvider());
+            instantiated();
 
             KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
             keyStore.load(null, new char[]{104, 111, 118, 110, 111});
@@ -39,6 +39,7 @@
 
 package cryptotest.tests;
 
+import cryptotest.Settings;
 import cryptotest.utils.AlgorithmInstantiationException;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
@@ -64,6 +65,18 @@ public class SaslClientFactoryTests extends AlgorithmTest {
         return "SaslClientFactory";
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        //sets java.security.krb5.conf for each check
+        return false;
+    }
+
+    @Override
+    public long getCheckTimeout() {
+        //kdc which does not answer is retried, each attempt waiting for its own timeout
+        return 3L * Settings.checkTimeout;
+    }
+
     @Override
     protected void checkAlgorithm(Provider.Service service, String alias) throws AlgorithmInstantiationException, AlgorithmRunException {
         System.setProperty("java.security.krb5.conf",
@@ -35,6 +35,12 @@ public abstract class SaslServerFactoryBase extends AlgorithmTest {
         return "SaslServerFactory";
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        //see setSaslProps
+        return false;
+    }
+
     protected void setSaslProps() {
         //allows us to read subject's credentials from sources different from
         //instantiated Subject, such as normal file or OS cache; for more information, please consult the following link:
@@ -79,6 +79,7 @@ public class SecretKeyFactoryTests extends AlgorithmTest {
             AlgorithmRunException {
         try {
             SecretKeyFactory secretKeyFactory = SecretKeyFactory.getInstance(alias, service.getProvider());
+            instantiated();
             KeySpec keySpec;
             SecretKey secretKey;
             Provider p = service.getProvider();
@@ -65,6 +65,7 @@ public class SecureRandomTests extends AlgorithmTest {
             AlgorithmInstantiationException, AlgorithmRunException {
         try {
             java.security.SecureRandom sr = java.security.SecureRandom.getInstance(alias, service.getProvider());
+            instantiated();
             //blocking may wait really long time on headless system, so lets live with init only
             if (!service.getAlgorithm().equals("NativePRNGBlocking")) {
                 int res = sr.nextInt();
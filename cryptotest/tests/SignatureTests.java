@@ -47,10 +47,10 @@ import cryptotest.utils.AlgorithmIgnoredException;
 import cryptotest.utils.AlgorithmInstantiationException;
 import cryptotest.utils.AlgorithmRunException;
 import cryptotest.utils.AlgorithmTest;
-import static cryptotest.utils.KeysNaiveGenerator.getDsaPrivateKey;
-import static cryptotest.utils.KeysNaiveGenerator.getEcPrivateKey;
-import static cryptotest.utils.KeysNaiveGenerator.getRsaPrivateKey;
-import static cryptotest.utils.KeysNaiveGenerator.getDsaPrivateKey1024;
+import static cryptotest.utils.KeysNaiveGenerator.getDsaKeyPair1024;
+import static cryptotest.utils.KeysNaiveGenerator.getEcKeyPair;
+import static cryptotest.utils.KeysNaiveGenerator.getProviderKeyPair;
+import static cryptotest.utils.KeysNaiveGenerator.getRsaKeyPair;
 import cryptotest.utils.TestResult;
 import cryptotest.utils.Misc;
 
@@ -73,76 +73,15 @@ public class SignatureTests extends AlgorithmTest {
     @Override
     protected void checkAlgorithm(Provider.Service service, String alias) throws AlgorithmInstantiationException, AlgorithmRunException {
         try {
-            if (Misc.isPkcs11Fips(service.getProvider())
-                && service.getAlgorithm().contains("SHA3-")) {
-                // skip: NSS does not support SHA3 (yet)
-                // See: https://issues.redhat.com/browse/OPENJDK-826
-                throw new AlgorithmIgnoredException();
-            }
-            if (service.getAlgorithm().equals("HSS/LMS")) {
-                // Signing is not supported (only verification) -> skip
-                // See: https://github.com/openjdk/jdk/blob/a4e97aa4ebe6fcfc3ed9e45ed81df1d55e52d621/src/java.base/share/classes/sun/security/provider/HSS.java#L61
-                throw new AlgorithmIgnoredException();
-            }
+            checkIgnored(service);
             Signature sig = Signature.getInstance(alias, service.getProvider());
-            //most of them are happy with rsa...
-            PrivateKey key = getRsaPrivateKey(service.getProvider());
-            if (service.getAlgorithm().contains("EC")) {
-                if (service.getProvider().getName().equals("SunMSCAPI")) {
-                    // SunMSCAPI provider currently does not have KeyPairGenerator
-                    // and does not support keys generated by other providers
-                    try {
-                        KeyPairGenerator.getInstance("EC", service.getProvider());
-                    } catch (NoSuchAlgorithmException e) {
-                        // skip if KeyPairGenerator is not available
-                        throw new AlgorithmIgnoredException();
-                    }
-                }
-                key = getEcPrivateKey(service.getProvider());
-            } else if (service.getAlgorithm().equals("Ed25519") || service.getAlgorithm().equals("EdDSA") || service.getAlgorithm().equals("Ed448") || service.getAlgorithm().startsWith("ML-")) {
-                KeyPairGenerator kpg = KeyPairGenerator.getInstance(service.getAlgorithm(), service.getProvider());
-                KeyPair kp = kpg.generateKeyPair();
-                key = kp.getPrivate();
-            } else if (service.getAlgorithm().contains("DSA")) {
-                //if (service.getAlgorithm().contains("SHA1")) {
-                    /* SHA1 is not sufficient for default DSA key size,
-                       throwing:
-                       java.security.InvalidKeyException: The security strength of SHA-1 digest algorithm is not sufficient for this key size
-
-                       See:
-                       https://bugs.java.com/view_bug.do?bug_id=8184341
-                       http://hg.openjdk.java.net/jdk8u/jdk8u-dev/jdk/file/8a97a690a0b3/src/share/classes/sun/security/provider/DSA.java#l104
-
-                       1024-bits is also needed for pkcs11 in fips mode, default size does not work there
-                    */
-                    key = getDsaPrivateKey1024(service.getProvider());
-                    /*
-                } else {
-                    key = getDsaPrivateKey(service.getProvider());
-                }
-                */
-            } else if (service.getAlgorithm().contains("RSASSA-PSS")){
-                KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA", service.getProvider());
-                KeyPair kp = kpg.generateKeyPair();
-                key = kp.getPrivate();
-                PSSParameterSpec pssParam;
-                // See:
-                // https://github.com/openjdk/jdk11u/blob/73eef16128417f4a489c4dde47383bb4a00f39d4/src/java.base/share/classes/java/security/spec/PSSParameterSpec.java#L167
-                // https://github.com/openjdk/jdk11u/blob/73eef16128417f4a489c4dde47383bb4a00f39d4/test/jdk/sun/security/mscapi/InteropWithSunRsaSign.java#L55
-                if (service.getAlgorithm().contains("SHA512")) {
-                    pssParam = new PSSParameterSpec("SHA-512", "MGF1", MGF1ParameterSpec.SHA512, 64, PSSParameterSpec.TRAILER_FIELD_BC);
-                } else if (service.getAlgorithm().contains("SHA384")) {
-                    pssParam = new PSSParameterSpec("SHA-384", "MGF1", MGF1ParameterSpec.SHA384, 48, PSSParameterSpec.TRAILER_FIELD_BC);
-                } else if (service.getAlgorithm().contains("SHA256")) {
-                    pssParam = new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, PSSParameterSpec.TRAILER_FIELD_BC);
-                } else if (service.getAlgorithm().contains("SHA224")) {
-                    pssParam = new PSSParameterSpec("SHA-224", "MGF1", MGF1ParameterSpec.SHA224, 28, PSSParameterSpec.TRAILER_FIELD_BC);
-                } else {
-                    // defaults (SHA1)
-                    pssParam = new PSSParameterSpec(20);
-                }
+            instantiated();
+            PrivateKey key = getKeyPair(service).getPrivate();
+            PSSParameterSpec pssParam = getPssParameterSpec(service);
+            if (pssParam != null) {
                 sig.setParameter(pssParam);
             }
+            keysReady();
             sig.initSign(key);
             //NONEwithDSA needs 20bytes
             byte[] b = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14,
@@ -170,6 +109,80 @@ public class SignatureTests extends AlgorithmTest {
 
     }
 
+    /**
+     * Throws AlgorithmIgnoredException for services which can not sign at all.
+     */
+    public static void checkIgnored(Provider.Service service) {
+        if (Misc.isPkcs11Fips(service.getProvider())
+            && service.getAlgorithm().contains("SHA3-")) {
+            // skip: NSS does not support SHA3 (yet)
+            // See: https://issues.redhat.com/browse/OPENJDK-826
+            throw new AlgorithmIgnoredException();
+        }
+        if (service.getAlgorithm().equals("HSS/LMS")) {
+            // Signing is not supported (only verification) -> skip
+            // See: https://github.com/openjdk/jdk/blob/a4e97aa4ebe6fcfc3ed9e45ed81df1d55e52d621/src/java.base/share/classes/sun/security/provider/HSS.java#L61
+            throw new AlgorithmIgnoredException();
+        }
+    }
+
+    public static KeyPair getKeyPair(Provider.Service service) throws NoSuchAlgorithmException {
+        if (service.getAlgorithm().contains("EC")) {
+            if (service.getProvider().getName().equals("SunMSCAPI")) {
+                // SunMSCAPI provider currently does not have KeyPairGenerator
+                // and does not support keys generated by other providers
+                try {
+                    KeyPairGenerator.getInstance("EC", service.getProvider());
+                } catch (NoSuchAlgorithmException e) {
+                    // skip if KeyPairGenerator is not available
+                    throw new AlgorithmIgnoredException();
+                }
+            }
+            return getEcKeyPair(service.getProvider());
+        } else if (service.getAlgorithm().equals("Ed25519") || service.getAlgorithm().equals("EdDSA") || service.getAlgorithm().equals("Ed448") || service.getAlgorithm().startsWith("ML-")) {
+            return getProviderKeyPair(service.getAlgorithm(), service.getProvider());
+        } else if (service.getAlgorithm().contains("DSA")) {
+            /* SHA1 is not sufficient for default DSA key size,
+               throwing:
+               java.security.InvalidKeyException: The security strength of SHA-1 digest algorithm is not sufficient for this key size
+
+               See:
+               https://bugs.java.com/view_bug.do?bug_id=8184341
+               http://hg.openjdk.java.net/jdk8u/jdk8u-dev/jdk/file/8a97a690a0b3/src/share/classes/sun/security/provider/DSA.java#l104
+
+               1024-bits is also needed for pkcs11 in fips mode, default size does not work there
+            */
+            return getDsaKeyPair1024(service.getProvider());
+        } else if (service.getAlgorithm().contains("RSASSA-PSS")) {
+            return getProviderKeyPair("RSA", service.getProvider());
+        }
+        //most of them are happy with rsa...
+        return getRsaKeyPair(service.getProvider());
+    }
+
+    /**
+     * @return parameters for RSASSA-PSS, null for other algorithms
+     */
+    public static PSSParameterSpec getPssParameterSpec(Provider.Service service) {
+        if (!service.getAlgorithm().contains("RSASSA-PSS")) {
+            return null;
+        }
+        // See:
+        // https://github.com/openjdk/jdk11u/blob/73eef16128417f4a489c4dde47383bb4a00f39d4/src/java.base/share/classes/java/security/spec/PSSParameterSpec.java#L167
+        // https://github.com/openjdk/jdk11u/blob/73eef16128417f4a489c4dde47383bb4a00f39d4/test/jdk/sun/security/mscapi/InteropWithSunRsaSign.java#L55
+        if (service.getAlgorithm().contains("SHA512")) {
+            return new PSSParameterSpec("SHA-512", "MGF1", MGF1ParameterSpec.SHA512, 64, PSSParameterSpec.TRAILER_FIELD_BC);
+        } else if (service.getAlgorithm().contains("SHA384")) {
+            return new PSSParameterSpec("SHA-384", "MGF1", MGF1ParameterSpec.SHA384, 48, PSSParameterSpec.TRAILER_FIELD_BC);
+        } else if (service.getAlgorithm().contains("SHA256")) {
+            return new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, PSSParameterSpec.TRAILER_FIELD_BC);
+        } else if (service.getAlgorithm().contains("SHA224")) {
+            return new PSSParameterSpec("SHA-224", "MGF1", MGF1ParameterSpec.SHA224, 28, PSSParameterSpec.TRAILER_FIELD_BC);
+        }
+        // defaults (SHA1)
+        return new PSSParameterSpec(20);
+    }
+
     @Override
     public String getTestedPart() {
         return "Signature";
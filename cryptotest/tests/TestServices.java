@@ -86,12 +86,27 @@ import java.util.Set;
  *        cryptotest.tests.TransformServiceTests
  *        cryptotest.tests.TrustManagerFactoryTests
  *        cryptotest.tests.XMLSignatureFactoryTests
+ *        cryptotest.utils.AlgorithmCheck
  *        cryptotest.utils.AlgorithmInstantiationException
  *        cryptotest.utils.AlgorithmRunException
  *        cryptotest.utils.AlgorithmTest
+ *        cryptotest.utils.AlgorithmTimeoutException
+ *        cryptotest.utils.ApiBridge
+ *        cryptotest.utils.CheckTimings
+ *        cryptotest.utils.CheckWatchdog
  *        cryptotest.utils.ClassFinder
+ *        cryptotest.utils.KeyCache
+ *        cryptotest.utils.JsonLines
+ *        cryptotest.utils.KeyCorpus
  *        cryptotest.utils.KeysNaiveGenerator
  *        cryptotest.utils.Misc
+ *        cryptotest.utils.PinningMonitor
+ *        cryptotest.utils.PkiFixtures
+ *        cryptotest.utils.PkiGenerator
+ *        cryptotest.utils.ProgressJournal
+ *        cryptotest.utils.ProviderFingerprints
+ *        cryptotest.utils.Shards
+ *        cryptotest.utils.SweepExecutor
  *        cryptotest.utils.TestResult
  *        cryptotest.utils.Xml
  * @run main/othervm/timeout=960 cryptotest.tests.TestServices
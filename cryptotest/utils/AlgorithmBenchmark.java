@@ -0,0 +1,268 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.security.Provider;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Base of benchmarks. Like AlgorithmTest, it walks all services of one type
+ * in all providers, but measures the operations instead of just checking them.
+ * Aliases are not benchmarked, they share implementation with the algorithm.
+ */
+public abstract class AlgorithmBenchmark {
+
+    private final List<BenchmarkResult> results = new ArrayList<>();
+    //keeps results of measured operations reachable, so they can not be optimized away
+    private volatile Object sink;
+
+    public interface Operation {
+
+        Object run() throws Exception;
+    }
+
+    public abstract String getTestedPart();
+
+    protected abstract void benchmarkAlgorithm(Provider.Service service) throws Exception;
+
+    /**
+     * Called once all services of the type were benchmarked, for measurements
+     * across all of them.
+     *
+     * @param services services which were not skipped by filter
+     */
+    protected void benchmarkServices(List<Provider.Service> services) throws Exception {
+    }
+
+    public final List<BenchmarkResult> doBenchmark() {
+        System.out.println("benchmarking: " + this.getClass().getName());
+        List<Provider.Service> services = new ArrayList<>();
+        for (Provider provider : Security.getProviders()) {
+            for (Provider.Service service : provider.getServices()) {
+                if (!service.getType().equals(getTestedPart())) {
+                    continue;
+                }
+                String name = provider.getName() + "/" + service.getAlgorithm();
+                if (Settings.BenchmarkSettings.filter != null && !name.matches(Settings.BenchmarkSettings.filter)) {
+                    continue;
+                }
+                System.out.println(name + "\t (" + service.getType() + ")");
+                services.add(service);
+                try {
+                    benchmarkAlgorithm(service);
+                } catch (AlgorithmIgnoredException ex) {
+                    System.out.println("Ignored");
+                } catch (Exception ex) {
+                    System.out.println("Skipped: " + ex);
+                    if (Settings.VerbositySettings.printStacks) {
+                        ex.printStackTrace();
+                    }
+                }
+            }
+        }
+        try {
+            benchmarkServices(services);
+        } catch (Exception ex) {
+            System.out.println("Skipped: " + ex);
+            if (Settings.VerbositySettings.printStacks) {
+                ex.printStackTrace();
+            }
+        }
+        System.out.println("----------------------------------");
+        for (BenchmarkResult r : results) {
+            System.out.println(r);
+        }
+        if (Settings.BenchmarkSettings.output != null) {
+            writeResults(Settings.BenchmarkSettings.output);
+        }
+        return results;
+    }
+
+    private void writeResults(String file) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(file, true))) {
+            pw.println("# " + this.getClass().getName() + " on " + System.getProperty("java.vm.name")
+                    + " " + System.getProperty("java.runtime.version"));
+            for (BenchmarkResult r : results) {
+                pw.println(r.toLine());
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Runs operation for warmup and measurement iterations.
+     *
+     * @param bytesPerOp when positive, score is in MB/s, otherwise in ops/s
+     */
+    protected final BenchmarkResult measure(Provider.Service service, String operation, String param,
+            long bytesPerOp, Operation op) throws Exception {
+        return measure(service, operation, param, bytesPerOp, false, op);
+    }
+
+    /**
+     * Runs operation for warmup and measurement iterations.
+     *
+     * @param bytesPerOp when positive, score is in MB/s, otherwise in ops/s
+     * @param latency whether to record duration of each measured operation, and report its percentiles
+     */
+    protected final BenchmarkResult measure(Provider.Service service, String operation, String param,
+            long bytesPerOp, boolean latency, Operation op) throws Exception {
+        return addResult(collect(service, operation, param, bytesPerOp, latency, op));
+    }
+
+    /**
+     * Like measure, but the result is only returned, eg to be added by
+     * addResult once it is known the measurement was not abandoned.
+     */
+    protected final BenchmarkResult collect(Provider.Service service, String operation, String param,
+            long bytesPerOp, boolean latency, Operation op) throws Exception {
+        for (int i = 0; i < Settings.BenchmarkSettings.warmupIterations; i++) {
+            runIteration(op, null);
+        }
+        LatencyRecorder recorder = latency ? new LatencyRecorder() : null;
+        double[] scores = new double[Settings.BenchmarkSettings.iterations];
+        for (int i = 0; i < scores.length; i++) {
+            double opsPerSecond = runIteration(op, recorder);
+            scores[i] = bytesPerOp > 0 ? opsPerSecond * bytesPerOp / 1000000d : opsPerSecond;
+        }
+        return new BenchmarkResult(service.getProvider().getName(), service.getAlgorithm(),
+                operation, param, bytesPerOp > 0 ? "MB/s" : "ops/s", scores,
+                recorder == null ? null : BenchmarkResult.getLatencies(recorder));
+    }
+
+    /**
+     * Adds result measured by benchmark itself, eg. by more threads.
+     */
+    protected final BenchmarkResult addResult(BenchmarkResult r) {
+        System.out.println(r);
+        results.add(r);
+        return r;
+    }
+
+    /**
+     * Runs operations concurrently, each on its own thread, for warmup and
+     * measurement iterations. Score is the sum of all threads.
+     *
+     * @param ops one operation per thread, the same instance can be passed
+     * more times to measure shared object
+     * @param bytesPerOp when positive, score is in MB/s, otherwise in ops/s
+     */
+    protected final BenchmarkResult measure(Provider.Service service, String operation, String param,
+            long bytesPerOp, Operation[] ops) throws Exception {
+        return addResult(collect(service, operation, param, bytesPerOp, ops));
+    }
+
+    /**
+     * Like measure, but the result is only returned, eg to be added by
+     * addResult once it is known the measurement was not abandoned.
+     */
+    protected final BenchmarkResult collect(Provider.Service service, String operation, String param,
+            long bytesPerOp, Operation[] ops) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(ops.length, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "cryptotest-benchmark");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        try {
+            for (int i = 0; i < Settings.BenchmarkSettings.warmupIterations; i++) {
+                runIteration(executor, ops);
+            }
+            double[] scores = new double[Settings.BenchmarkSettings.iterations];
+            for (int i = 0; i < scores.length; i++) {
+                double opsPerSecond = runIteration(executor, ops);
+                scores[i] = bytesPerOp > 0 ? opsPerSecond * bytesPerOp / 1000000d : opsPerSecond;
+            }
+            return new BenchmarkResult(service.getProvider().getName(), service.getAlgorithm(),
+                    operation, param, bytesPerOp > 0 ? "MB/s" : "ops/s", scores);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private double runIteration(ExecutorService executor, Operation[] ops) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>(ops.length);
+        for (final Operation op : ops) {
+            futures.add(executor.submit(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    start.await();
+                    long deadline = System.nanoTime() + Settings.BenchmarkSettings.iterationTime * 1000000L;
+                    long count = 0;
+                    Object last = null;
+                    do {
+                        last = op.run();
+                        count++;
+                    } while (System.nanoTime() < deadline);
+                    //one write per iteration, not to make the threads contend on the sink
+                    sink = last;
+                    return count;
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        long count = 0;
+        for (Future<Long> f : futures) {
+            count += f.get();
+        }
+        return count * 1e9 / (System.nanoTime() - begin);
+    }
+
+    private double runIteration(Operation op, LatencyRecorder recorder) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long deadline = start + Settings.BenchmarkSettings.iterationTime * 1000000L;
+        long last = start;
+        long now;
+        do {
+            sink = op.run();
+            ops++;
+            now = System.nanoTime();
+            if (recorder != null) {
+                recorder.record(now - last);
+            }
+            last = now;
+        } while (now < deadline);
+        return ops * 1e9 / (now - start);
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.security.Provider;
+
+/**
+ * One (provider, service, alias) triple to be checked by an {@link AlgorithmTest},
+ * together with its outcome once the check was run.
+ */
+public class AlgorithmCheck {
+
+    public static enum Outcome {
+
+        //SKIPPED checks were not run, as their provider did not change since last run, see ProviderFingerprints
+        PASSED, IGNORED, FAILED_RUN, FAILED_INIT, ERROR, TIMEOUT, SKIPPED;
+    }
+
+    private final Provider.Service service;
+    private final String alias;
+    private final String title;
+    //only used when output of check can not go directly to stdout
+    private StringBuilder output;
+    private Outcome outcome;
+    private Exception exception;
+    //System.nanoTime() of phases, phases the check did not mark are 0
+    private long started;
+    private long instantiated;
+    private long keysReady;
+    private volatile long finished;
+    //why the check is not run in this jvm, null if it is
+    private String notRunReason;
+
+    AlgorithmCheck(Provider.Service service, String alias, String title) {
+        this.service = service;
+        this.alias = alias;
+        this.title = title;
+    }
+
+    public Provider getProvider() {
+        return service.getProvider();
+    }
+
+    public Provider.Service getService() {
+        return service;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    /**
+     * First outcome wins, so check abandoned by watchdog stays TIMEOUT even
+     * if it finishes later.
+     */
+    synchronized void setOutcome(Outcome outcome, Exception exception) {
+        if (this.outcome == null) {
+            this.outcome = outcome;
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * Outcome taken from ProgressJournal, the check is not run.
+     */
+    void resume(Outcome outcome, Exception exception, long nanos) {
+        setOutcome(outcome, exception);
+        notRunReason = "Resumed from journal";
+        started = 0;
+        finished = nanos;
+    }
+
+    void skip(String reason) {
+        setOutcome(Outcome.SKIPPED, null);
+        notRunReason = reason;
+    }
+
+    /**
+     * @return why the check is not run, null if it is to be run
+     */
+    public String getNotRunReason() {
+        return notRunReason;
+    }
+
+    void started() {
+        started = System.nanoTime();
+    }
+
+    void instantiated() {
+        if (finished == 0) {
+            instantiated = System.nanoTime();
+        }
+    }
+
+    void keysReady() {
+        if (finished == 0) {
+            keysReady = System.nanoTime();
+        }
+    }
+
+    void finished() {
+        finished = System.nanoTime();
+    }
+
+    /**
+     * Time spent in getInstance, in nanoseconds. Zero when the check did not mark it.
+     */
+    public long getInstantiationTime() {
+        return instantiated == 0 ? 0 : instantiated - started;
+    }
+
+    /**
+     * Time spent obtaining keys and parameters, in nanoseconds. Zero when the check did not mark it.
+     */
+    public long getKeysTime() {
+        return keysReady == 0 ? 0 : keysReady - (instantiated == 0 ? started : instantiated);
+    }
+
+    /**
+     * Rest of the check, in nanoseconds. For checks not marking phases, it is the whole check.
+     */
+    public long getOperationTime() {
+        long last = keysReady != 0 ? keysReady : instantiated != 0 ? instantiated : started;
+        return finished - last;
+    }
+
+    public long getTotalTime() {
+        return finished - started;
+    }
+
+    synchronized void bufferOutput() {
+        output = new StringBuilder();
+    }
+
+    /**
+     * Output of check abandoned by watchdog, which may still run, is dropped,
+     * so it does not get among output of later checks.
+     */
+    synchronized void print(String s) {
+        if (outcome == Outcome.TIMEOUT) {
+            return;
+        }
+        if (output != null) {
+            output.append(s).append('\n');
+        } else {
+            System.out.println(s);
+        }
+    }
+
+    synchronized String getOutput() {
+        return output == null ? "" : output.toString();
+    }
+
+}
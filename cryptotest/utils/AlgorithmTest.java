@@ -32,15 +32,25 @@ import java.security.Security;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public abstract class AlgorithmTest {
 
-    private List<Exception> failedInits = new ArrayList<>();
-    private List<Exception> failedRuns = new ArrayList<>();
-    private List<Exception> errorRuns = new ArrayList<>();
-    private int algorithmsSeen = 0;
-    private int testsCount = 0;
+    //check currently running on this thread, so its output can be buffered in parallel mode
+    private static final ThreadLocal<AlgorithmCheck> currentCheck = new ThreadLocal<>();
+
+    private final Failures failedInits = new Failures("failed inits");
+    private final Failures failedRuns = new Failures("failed runs");
+    private final Failures errorRuns = new Failures("error runs");
+    private final Failures timedOut = new Failures("timed out");
+    private final AtomicInteger algorithmsSeen = new AtomicInteger();
+    private final AtomicInteger testsCount = new AtomicInteger();
+    private List<AlgorithmCheck> checks;
+    private List<Future<AlgorithmCheck>> pending;
     private boolean run;
 
     public String getTestedPart() {
@@ -54,10 +64,37 @@ public abstract class AlgorithmTest {
       return null;
     }
 
+    /**
+     * Tests changing global state (eg system properties) must not have their
+     * checks run concurrently. Such tests are run serially even in parallel mode.
+     */
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Milliseconds one check may run before it is abandoned as TIMEOUT, 0 for
+     * no limit. Tests which may wait for network or devices can allow more.
+     * In parallel run it is multiplied by number of threads.
+     */
+    public long getCheckTimeout() {
+        return Settings.checkTimeout;
+    }
+
+    /**
+     * Timeout of given check, getCheckTimeout() shortened by timings of
+     * previous runs, see CheckWatchdog. Tests whose checks take random time
+     * (eg search for primes) return getCheckTimeout() as it is, as previous
+     * run says nothing about the next one.
+     */
+    protected long getCheckTimeout(AlgorithmCheck check) {
+        return CheckWatchdog.getTimeout(check, getCheckTimeout());
+    }
+
     protected abstract void checkAlgorithm(Provider.Service service, String alias) throws AlgorithmInstantiationException, AlgorithmRunException;
 
     private String generateTitle(Provider provider, Provider.Service service, String alias) {
-        return Misc.generateTitle(testsCount, provider, service, alias);
+        return Misc.generateTitle(testsCount.get(), provider, service, alias);
 
     }
 
@@ -65,105 +102,314 @@ public abstract class AlgorithmTest {
         return mainLoop();
     }
 
-    protected final TestResult mainLoop() {
-        if (run) {
+    /**
+     * Collects all checks of this test. In parallel mode the checks are also
+     * submitted to shared worker pool, so more tests can be scheduled before
+     * results of first one are collected by doTest.
+     */
+    public final void schedule() {
+        if (run || checks != null) {
             throw new RuntimeException("This test already run. Make new instance");
         }
-        System.out.println("running: " + this.getClass().getName());
-        run = true;
+        Shards.checkSettings();
+        checks = new ArrayList<>();
+        //timings of previous runs are read before this run appends its own
+        CheckWatchdog.getHistory();
+        ProgressJournal journal = ProgressJournal.getJournal();
+        ProviderFingerprints fingerprints = ProviderFingerprints.getFingerprints();
         Provider[] providers = Security.getProviders();
         for (Provider provider : providers) {
             for (Provider.Service service : provider.getServices()) {
                 //we can test each instance by its name or by its alias. Still setup is done only by name, as from
                 // aliases it si very hard to be guessed
                 for (String alias : Misc.createNames(service)) {
-                    algorithmsSeen++;
-                    String title = generateTitle(provider, service, alias);
-                    try {
-                        if (service.getType().equals(getTestedPart())) {
-                            if (getAlgorithmExcludeList() != null) {
-                                if (alias.matches(getAlgorithmExcludeList())) {
-                                    continue;
-                                }
+                    algorithmsSeen.incrementAndGet();
+                    if (service.getType().equals(getTestedPart())) {
+                        if (getAlgorithmExcludeList() != null) {
+                            if (alias.matches(getAlgorithmExcludeList())) {
+                                continue;
                             }
-                            if (getAlgorithmAllowList() != null) {
-                                if (!alias.matches(getAlgorithmAllowList())) {
-                                    continue;
-                                }
+                        }
+                        if (getAlgorithmAllowList() != null) {
+                            if (!alias.matches(getAlgorithmAllowList())) {
+                                continue;
                             }
-                            System.out.println(title);
-                            testsCount++;
-                            checkAlgorithm(service, alias);
-                            System.out.println("Passed");
                         }
-                    } catch (AlgorithmIgnoredException ex) {
-                        System.out.println("Ignored");
-                    } catch (AlgorithmRunException ex) {
-                        failedRuns.add(new Exception(title, ex));
-                        System.out.println(ex);
-                        System.out.println("failed to use: " + service.getAlgorithm() + " from " + provider);
-                        System.out.println("Failed");
-                        if (Settings.VerbositySettings.printStacks) {
-                            System.err.println(title);
-                            ex.printStackTrace();
+                        if (!Shards.isInShard(provider.getName(), service.getType(), alias)) {
+                            continue;
                         }
-                    } catch (AlgorithmInstantiationException ex) {
-                        failedInits.add(new Exception(title, ex));
-                        System.out.println(ex);
-                        System.out.println("Failed to init: " + service.getAlgorithm() + " from " + provider);
-                        System.out.println("Failed");
-                        if (Settings.VerbositySettings.printStacks) {
-                            System.err.println(title);
-                            ex.printStackTrace();
+                        AlgorithmCheck check = new AlgorithmCheck(service, alias, generateTitle(provider, service, alias));
+                        if (journal != null) {
+                            journal.restore(check);
                         }
-                    } catch (Exception ex) {
-                        errorRuns.add(new Exception(title, ex));
-                        System.out.println(ex);
-                        System.out.println("Error: " + service.getAlgorithm() + " from " + provider);
-                        System.out.println("Error");
-                        if (Settings.VerbositySettings.printStacks) {
-                            System.err.println(title);
-                            ex.printStackTrace();
+                        if (check.getNotRunReason() == null && fingerprints != null && fingerprints.isUnchanged(provider)) {
+                            check.skip("Skipped, provider did not change");
                         }
+                        checks.add(check);
+                        testsCount.incrementAndGet();
                     }
                 }
 
             }
         }
-        int failed = (failedInits.size() + failedRuns.size() + errorRuns.size());
+        if (SweepExecutor.isParallel() && isThreadSafe()) {
+            pending = new ArrayList<>(checks.size());
+            for (final AlgorithmCheck check : checks) {
+                if (check.getNotRunReason() != null) {
+                    pending.add(null);
+                    continue;
+                }
+                check.bufferOutput();
+                pending.add(SweepExecutor.getPool().submit(new Callable<AlgorithmCheck>() {
+                    @Override
+                    public AlgorithmCheck call() {
+                        return runCheck(check);
+                    }
+                }));
+            }
+        }
+    }
+
+    protected final TestResult mainLoop() {
+        if (run) {
+            throw new RuntimeException("This test already run. Make new instance");
+        }
+        if (checks == null) {
+            schedule();
+        }
+        System.out.println("running: " + this.getClass().getName());
+        run = true;
+        //abandoned check of test which is not thread safe may still run, no other check may start beside it
+        AlgorithmCheck abandoned = null;
+        CheckTimings timings = new CheckTimings(getTestedPart(), checks.size());
+        //results are reported in order of checks, regardless the order they were finished in
+        for (int i = 0; i < checks.size(); i++) {
+            AlgorithmCheck check = checks.get(i);
+            System.out.println(check.getTitle());
+            if (check.getNotRunReason() == null && abandoned != null) {
+                check.skip("Skipped, abandoned check of " + abandoned.getProvider().getName() + " " + abandoned.getAlias() + " may still run and the test is not thread safe");
+            }
+            if (check.getNotRunReason() != null) {
+                System.out.println(check.getNotRunReason());
+            } else if (pending != null) {
+                try {
+                    pending.get(i).get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    throw new RuntimeException(check.getTitle(), ex);
+                }
+                System.out.print(check.getOutput());
+            } else {
+                runCheck(check);
+                if (check.getOutcome() == AlgorithmCheck.Outcome.TIMEOUT && !isThreadSafe()) {
+                    abandoned = check;
+                }
+            }
+            report(check);
+            timings.add(check);
+            //reported check (with its output and exception) is not needed any more, tests may have thousands of them
+            checks.set(i, null);
+            if (pending != null) {
+                pending.set(i, null);
+            }
+        }
+        int failed = (failedInits.size() + failedRuns.size() + errorRuns.size() + timedOut.size());
         TestResult.AlgorithmTestResult r;
         if (failed == 0) {
-            r = TestResult.AlgorithmTestResult.pass("All " + getTestedPart() + " passed", this.getClass(), testsCount, algorithmsSeen);
+            r = TestResult.AlgorithmTestResult.pass("All " + getTestedPart() + " passed", this.getClass(), testsCount.get(), algorithmsSeen.get());
         } else {
 
-            String expl = failed + " " + getTestedPart() + " failed\n";
-            expl = expl + "** failed runs: " + failedRuns.size() + " **\n";
-            for (Exception ex : failedRuns) {
-                StringWriter stack = new StringWriter();
-                ex.printStackTrace(new PrintWriter(stack));
-                expl += stack.toString();
+            //all stacks are printed to one writer, concatenating them would be quadratic
+            StringWriter expl = new StringWriter();
+            PrintWriter pw = new PrintWriter(expl);
+            pw.print(failed + " " + getTestedPart() + " failed\n");
+            failedRuns.print(pw);
+            failedInits.print(pw);
+            errorRuns.print(pw);
+            timedOut.print(pw);
+            pw.flush();
+            if (timedOut.isEmpty()) {
+                r = TestResult.AlgorithmTestResult.fail(expl.toString(), this.getClass(), testsCount.get(), failed, algorithmsSeen.get());
+            } else {
+                r = TestResult.AlgorithmTestResult.timeout(expl.toString(), this.getClass(), testsCount.get(), failed, algorithmsSeen.get());
+            }
+
+        }
+        r.setTimings(timings);
+        return r;
+    }
+
+    /**
+     * Failed checks of one kind. All are counted, but only stacks of first
+     * Settings.VerbositySettings.keptStacks are kept for the explanation, so
+     * memory does not grow with number of failures.
+     */
+    private static class Failures {
+
+        private final String name;
+        private final List<Exception> kept = new ArrayList<>();
+        private int count;
+
+        Failures(String name) {
+            this.name = name;
+        }
+
+        synchronized void add(Exception ex) {
+            count++;
+            if (kept.size() < Settings.VerbositySettings.keptStacks) {
+                kept.add(ex);
             }
-            expl = expl + "** failed inits: " + failedInits.size() + " **\n";
-            for (Exception ex : failedInits) {
-                StringWriter stack = new StringWriter();
-                ex.printStackTrace(new PrintWriter(stack));
-                expl += stack.toString();
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        synchronized boolean isEmpty() {
+            return count == 0;
+        }
+
+        synchronized void print(PrintWriter pw) {
+            pw.print("** " + name + ": " + count + " **\n");
+            for (Exception ex : kept) {
+                ex.printStackTrace(pw);
             }
-            expl = expl + "** error runs: " + errorRuns.size() + " **\n";
-            for (Exception ex : errorRuns) {
-                StringWriter stack = new StringWriter();
-                ex.printStackTrace(new PrintWriter(stack));
-                expl += stack.toString();
+            if (count > kept.size()) {
+                pw.print("** " + (count - kept.size()) + " more " + name + " not kept, "
+                        + (Settings.results == null ? "set cryptotests.results to record all of them" : "see " + Settings.results) + " **\n");
             }
-            r = TestResult.AlgorithmTestResult.fail(expl, this.getClass(), testsCount, failed, algorithmsSeen);
+        }
+    }
 
+    private AlgorithmCheck runCheck(final AlgorithmCheck check) {
+        long timeout = getCheckTimeout(check);
+        if (SweepExecutor.isParallel()) {
+            //the check shares cpus with other workers, prime searches in them may make it that many times slower
+            timeout *= SweepExecutor.getThreads();
+        }
+        check.started();
+        if (timeout > 0) {
+            CheckWatchdog.run(check, timeout, new Runnable() {
+                @Override
+                public void run() {
+                    execute(check);
+                }
+            });
+        } else {
+            execute(check);
+        }
+        check.finished();
+        ProgressJournal journal = ProgressJournal.getJournal();
+        if (journal != null) {
+            journal.write(check);
+        }
+        return check;
+    }
+
+    //the thread-local is set on the thread running checkAlgorithm, which is watchdog worker, if any
+    private void execute(AlgorithmCheck check) {
+        currentCheck.set(check);
+        try {
+            checkAlgorithm(check.getService(), check.getAlias());
+            check.setOutcome(AlgorithmCheck.Outcome.PASSED, null);
+        } catch (AlgorithmIgnoredException ex) {
+            check.setOutcome(AlgorithmCheck.Outcome.IGNORED, ex);
+        } catch (AlgorithmRunException ex) {
+            check.setOutcome(AlgorithmCheck.Outcome.FAILED_RUN, ex);
+        } catch (AlgorithmInstantiationException ex) {
+            check.setOutcome(AlgorithmCheck.Outcome.FAILED_INIT, ex);
+        } catch (Exception ex) {
+            check.setOutcome(AlgorithmCheck.Outcome.ERROR, ex);
+        } finally {
+            currentCheck.remove();
+        }
+    }
+
+    private void report(AlgorithmCheck check) {
+        JsonLines results = JsonLines.getResults();
+        if (results != null) {
+            results.write("test", getTestedPart(),
+                    "provider", check.getProvider().getName(),
+                    "type", check.getService().getType(),
+                    "algorithm", check.getService().getAlgorithm(),
+                    "alias", check.getAlias(),
+                    "outcome", check.getOutcome().name(),
+                    "exception", check.getException() == null ? null : check.getException().getClass().getName(),
+                    "nanos", check.getTotalTime(),
+                    "jdk", System.getProperty("java.runtime.version"));
+        }
+        String title = check.getTitle();
+        Exception ex = check.getException();
+        Provider.Service service = check.getService();
+        switch (check.getOutcome()) {
+            case PASSED:
+                System.out.println("Passed");
+                return;
+            case IGNORED:
+                System.out.println("Ignored");
+                return;
+            case SKIPPED:
+                return;
+            case FAILED_RUN:
+                failedRuns.add(new Exception(title, ex));
+                System.out.println(ex);
+                System.out.println("failed to use: " + service.getAlgorithm() + " from " + check.getProvider());
+                System.out.println("Failed");
+                break;
+            case TIMEOUT:
+                timedOut.add(new Exception(title, ex));
+                System.out.println(ex);
+                System.out.println("Timeout: " + service.getAlgorithm() + " from " + check.getProvider());
+                if (ex instanceof AlgorithmTimeoutException) {
+                    System.out.print(((AlgorithmTimeoutException) ex).getThreadDump());
+                }
+                System.out.println("Timeout");
+                break;
+            case FAILED_INIT:
+                failedInits.add(new Exception(title, ex));
+                System.out.println(ex);
+                System.out.println("Failed to init: " + service.getAlgorithm() + " from " + check.getProvider());
+                System.out.println("Failed");
+                break;
+            default:
+                errorRuns.add(new Exception(title, ex));
+                System.out.println(ex);
+                System.out.println("Error: " + service.getAlgorithm() + " from " + check.getProvider());
+                System.out.println("Error");
+        }
+        if (Settings.VerbositySettings.printStacks) {
+            System.err.println(title);
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Marks end of getInstance in the running check, for timing report.
+     */
+    protected static void instantiated() {
+        AlgorithmCheck check = currentCheck.get();
+        if (check != null) {
+            check.instantiated();
+        }
+    }
+
+    /**
+     * Marks that keys and parameters of the running check are ready, rest is operation itself.
+     */
+    protected static void keysReady() {
+        AlgorithmCheck check = currentCheck.get();
+        if (check != null) {
+            check.keysReady();
         }
-        return r;
     }
 
     protected static void printResult(String s) {
         if (Settings.VerbositySettings.printResults) {
-            System.out.println(s);
+            AlgorithmCheck check = currentCheck.get();
+            if (check != null) {
+                check.print(s);
+            } else {
+                System.out.println(s);
+            }
         }
     }
 
@@ -0,0 +1,213 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Call of api which is not present in all jdks we run on (KEM, KDF,
+ * ChaCha20ParameterSpec...), so the tests still compile on jdk 8.
+ * Method is looked up once, when the bridge is created, instead of
+ * Class.forName and getDeclaredMethod on every call. If it is not there,
+ * isAvailable() returns false and every invocation throws the original
+ * ClassNotFoundException, NoSuchMethodException or similar, so the caller
+ * sees same exceptions as with plain reflection.
+ * Owner and parameter types can be given as Class or as class name.
+ */
+public final class ApiBridge {
+
+    private static final ConcurrentMap<String, Object> classes = new ConcurrentHashMap<>();
+
+    private final String description;
+    // generic (Object[])Object, so it can be called by invokeExact
+    private final MethodHandle handle;
+    private final ReflectiveOperationException failure;
+
+    private ApiBridge(String description, MethodHandle handle, ReflectiveOperationException failure) {
+        this.description = description;
+        this.handle = handle;
+        this.failure = failure;
+    }
+
+    private interface Resolver {
+
+        MethodHandle resolve() throws ReflectiveOperationException;
+    }
+
+    private static ApiBridge create(String description, Resolver resolver) {
+        try {
+            MethodHandle mh = resolver.resolve();
+            int arity = mh.type().parameterCount();
+            mh = mh.asType(MethodType.genericMethodType(arity)).asSpreader(Object[].class, arity);
+            return new ApiBridge(description, mh, null);
+        } catch (ReflectiveOperationException ex) {
+            return new ApiBridge(description, null, ex);
+        } catch (RuntimeException ex) {
+            // eg. InaccessibleObjectException when module is not opened
+            return new ApiBridge(description, null, new IllegalAccessException(ex.toString()));
+        }
+    }
+
+    /**
+     * Public method, static or instance one. Instance method takes
+     * the receiver as first argument.
+     */
+    public static ApiBridge method(final Object owner, final String name, final Object... parameterTypes) {
+        return create(getName(owner) + "." + name, new Resolver() {
+            @Override
+            public MethodHandle resolve() throws ReflectiveOperationException {
+                Method m = toClass(owner).getMethod(name, toClasses(parameterTypes));
+                return MethodHandles.publicLookup().unreflect(m);
+            }
+        });
+    }
+
+    /**
+     * Method which is not public, made accessible. Needs the package
+     * to be opened (--add-opens) on jdk 9 and newer.
+     */
+    public static ApiBridge declaredMethod(final Object owner, final String name, final Object... parameterTypes) {
+        return create(getName(owner) + "." + name, new Resolver() {
+            @Override
+            public MethodHandle resolve() throws ReflectiveOperationException {
+                Method m = toClass(owner).getDeclaredMethod(name, toClasses(parameterTypes));
+                m.setAccessible(true);
+                return MethodHandles.lookup().unreflect(m);
+            }
+        });
+    }
+
+    public static ApiBridge constructor(final Object owner, final Object... parameterTypes) {
+        return create("new " + getName(owner), new Resolver() {
+            @Override
+            public MethodHandle resolve() throws ReflectiveOperationException {
+                Constructor<?> c = toClass(owner).getConstructor(toClasses(parameterTypes));
+                return MethodHandles.publicLookup().unreflectConstructor(c);
+            }
+        });
+    }
+
+    /**
+     * Getter of public static field, typically a constant.
+     */
+    public static ApiBridge staticField(final Object owner, final String name) {
+        return create(getName(owner) + "." + name, new Resolver() {
+            @Override
+            public MethodHandle resolve() throws ReflectiveOperationException {
+                Field f = toClass(owner).getField(name);
+                if (!Modifier.isStatic(f.getModifiers())) {
+                    throw new NoSuchFieldException(name + " is not static");
+                }
+                return MethodHandles.publicLookup().unreflectGetter(f);
+            }
+        });
+    }
+
+    /**
+     * Class.forName, with the result (including the failure) remembered.
+     */
+    public static Class<?> findClass(String name) throws ClassNotFoundException {
+        Object o = classes.get(name);
+        if (o == null) {
+            try {
+                o = Class.forName(name);
+            } catch (ClassNotFoundException ex) {
+                o = ex;
+            }
+            classes.putIfAbsent(name, o);
+        }
+        if (o instanceof ClassNotFoundException) {
+            throw (ClassNotFoundException) o;
+        }
+        return (Class<?>) o;
+    }
+
+    public boolean isAvailable() {
+        return failure == null;
+    }
+
+    /**
+     * Same contract as Method.invoke: anything thrown by the called method
+     * is wrapped in InvocationTargetException.
+     */
+    public Object invoke(Object... args) throws ReflectiveOperationException {
+        if (failure != null) {
+            throw failure;
+        }
+        try {
+            return (Object) handle.invokeExact(args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t, description);
+        }
+    }
+
+    /**
+     * As invoke, but exceptions of called method are thrown as they are,
+     * as if the method was called directly.
+     */
+    public Object call(Object... args) throws Exception {
+        try {
+            return invoke(args);
+        } catch (InvocationTargetException ex) {
+            Throwable t = ex.getCause();
+            if (t instanceof Exception) {
+                throw (Exception) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return description + (failure == null ? "" : " (unavailable: " + failure + ")");
+    }
+
+    private static String getName(Object type) {
+        return type instanceof Class ? ((Class<?>) type).getName() : String.valueOf(type);
+    }
+
+    private static Class<?> toClass(Object type) throws ClassNotFoundException {
+        return type instanceof Class ? (Class<?>) type : findClass((String) type);
+    }
+
+    private static Class<?>[] toClasses(Object[] types) throws ClassNotFoundException {
+        Class<?>[] r = new Class<?>[types.length];
+        for (int i = 0; i < types.length; i++) {
+            r[i] = toClass(types[i]);
+        }
+        return r;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.util.Locale;
+
+/**
+ * Scores of one benchmarked operation, one score per measurement iteration.
+ * Results are stored one per line, tab separated, so they can be compared later.
+ * Optionally, latency percentiles of single operations are stored in last column.
+ */
+public class BenchmarkResult {
+
+    private final String provider;
+    private final String algorithm;
+    private final String operation;
+    private final String param;
+    private final String unit;
+    private final double[] scores;
+    //microseconds, in order of LATENCY_PERCENTILES, null if not measured
+    private final double[] latencies;
+
+    public static final double[] LATENCY_PERCENTILES = {50, 99, 99.9};
+
+    public BenchmarkResult(String provider, String algorithm, String operation, String param, String unit, double[] scores) {
+        this(provider, algorithm, operation, param, unit, scores, null);
+    }
+
+    public BenchmarkResult(String provider, String algorithm, String operation, String param, String unit, double[] scores,
+            double[] latencies) {
+        this.provider = provider;
+        this.algorithm = algorithm;
+        this.operation = operation;
+        this.param = param;
+        this.unit = unit;
+        this.scores = scores;
+        this.latencies = latencies;
+    }
+
+    public static double[] getLatencies(LatencyRecorder recorder) {
+        double[] r = new double[LATENCY_PERCENTILES.length];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = recorder.getPercentile(LATENCY_PERCENTILES[i]) / 1000d;
+        }
+        return r;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public double[] getScores() {
+        return scores;
+    }
+
+    public double[] getLatencies() {
+        return latencies;
+    }
+
+    public double getMean() {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+
+    public double getStdDev() {
+        if (scores.length < 2) {
+            return 0;
+        }
+        double mean = getMean();
+        double sum = 0;
+        for (double score : scores) {
+            sum += (score - mean) * (score - mean);
+        }
+        return Math.sqrt(sum / (scores.length - 1));
+    }
+
+    /**
+     * provider, algorithm, operation and param together identify the result
+     */
+    public String getKey() {
+        return provider + "/" + algorithm + " " + operation + " " + param;
+    }
+
+    public String toLine() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(provider).append('\t').append(algorithm).append('\t').append(operation).append('\t')
+                .append(param).append('\t').append(unit).append('\t');
+        sb.append(join(scores, ","));
+        if (latencies != null) {
+            sb.append('\t').append(join(latencies, ","));
+        }
+        return sb.toString();
+    }
+
+    private static String join(double[] values, String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            sb.append(String.format(Locale.US, "%.3f", values[i]));
+        }
+        return sb.toString();
+    }
+
+    private static double[] parse(String values) {
+        String[] parts = values.split(",");
+        double[] r = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            r[i] = Double.parseDouble(parts[i]);
+        }
+        return r;
+    }
+
+    public static BenchmarkResult fromLine(String line) {
+        String[] parts = line.split("\t");
+        if (parts.length < 6) {
+            throw new IllegalArgumentException("Not a benchmark result: " + line);
+        }
+        return new BenchmarkResult(parts[0], parts[1], parts[2], parts[3], parts[4], parse(parts[5]),
+                parts.length > 6 ? parse(parts[6]) : null);
+    }
+
+    @Override
+    public String toString() {
+        String r = String.format(Locale.US, "%-60s %14.3f +- %10.3f %s", getKey(), getMean(), getStdDev(), unit);
+        if (latencies != null) {
+            StringBuilder sb = new StringBuilder(r).append("  ");
+            for (int i = 0; i < latencies.length; i++) {
+                sb.append(String.format(Locale.US, " p%s=%.1fus", percentileName(LATENCY_PERCENTILES[i]), latencies[i]));
+            }
+            r = sb.toString();
+        }
+        return r;
+    }
+
+    private static String percentileName(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
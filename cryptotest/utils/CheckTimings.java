@@ -0,0 +1,172 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Durations of all checks of one test, in nanoseconds. Kept as plain arrays,
+ * as there are thousands of checks, and the checks themselves are released
+ * as soon as they are reported.
+ */
+public class CheckTimings {
+
+    public static final int INSTANTIATION = 0;
+    public static final int KEYS = 1;
+    public static final int OPERATION = 2;
+    private static final int PHASES = 3;
+
+    private final String type;
+    //provider/alias
+    private final String[] names;
+    //PHASES values per check
+    private final long[] phases;
+
+    private int size;
+
+    CheckTimings(String type, int capacity) {
+        this.type = type;
+        names = new String[capacity];
+        phases = new long[capacity * PHASES];
+    }
+
+    void add(AlgorithmCheck check) {
+        int i = size++;
+        names[i] = check.getProvider().getName() + "/" + check.getAlias();
+        phases[i * PHASES + INSTANTIATION] = check.getInstantiationTime();
+        phases[i * PHASES + KEYS] = check.getKeysTime();
+        phases[i * PHASES + OPERATION] = check.getOperationTime();
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getName(int i) {
+        return names[i];
+    }
+
+    public long getPhase(int i, int phase) {
+        return phases[i * PHASES + phase];
+    }
+
+    public long getTotal(int i) {
+        long r = 0;
+        for (int phase = 0; phase < PHASES; phase++) {
+            r += getPhase(i, phase);
+        }
+        return r;
+    }
+
+    public long getTotal() {
+        long r = 0;
+        for (long phase : phases) {
+            r += phase;
+        }
+        return r;
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.US, "%10.1f", nanos / 1e6);
+    }
+
+    /**
+     * Prints count slowest checks of all tests, and histogram of check durations for each test.
+     */
+    public static void printReport(List<CheckTimings> all, int count, PrintStream out) {
+        List<long[]> slowest = new ArrayList<>();
+        for (int t = 0; t < all.size(); t++) {
+            for (int i = 0; i < all.get(t).size(); i++) {
+                slowest.add(new long[]{all.get(t).getTotal(i), t, i});
+            }
+        }
+        Collections.sort(slowest, new Comparator<long[]>() {
+            @Override
+            public int compare(long[] o1, long[] o2) {
+                return Long.compare(o2[0], o1[0]);
+            }
+        });
+        out.println("Slowest checks (ms):");
+        out.println(String.format("%10s %10s %10s %10s  %-28s %s", "total", "init", "keys", "operation", "type", "provider/alias"));
+        for (long[] s : slowest.subList(0, Math.min(count, slowest.size()))) {
+            CheckTimings t = all.get((int) s[1]);
+            int i = (int) s[2];
+            out.println(ms(s[0]) + " " + ms(t.getPhase(i, INSTANTIATION)) + " " + ms(t.getPhase(i, KEYS)) + " "
+                    + ms(t.getPhase(i, OPERATION)) + "  " + String.format("%-28s", t.getType()) + " " + t.getName(i));
+        }
+        out.println("Check durations by type:");
+        for (CheckTimings t : all) {
+            t.printHistogram(out);
+        }
+    }
+
+    /**
+     * Histogram with power of two buckets, starting at one microsecond.
+     */
+    public void printHistogram(PrintStream out) {
+        out.println(type + ": " + size() + " checks, " + ms(getTotal()).trim() + " ms");
+        if (size() == 0) {
+            return;
+        }
+        int[] buckets = new int[64];
+        int min = buckets.length;
+        int max = 0;
+        for (int i = 0; i < size(); i++) {
+            long micros = getTotal(i) / 1000;
+            int bucket = micros <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+            buckets[bucket]++;
+            min = Math.min(min, bucket);
+            max = Math.max(max, bucket);
+        }
+        int most = 0;
+        for (int b : buckets) {
+            most = Math.max(most, b);
+        }
+        for (int b = min; b <= max; b++) {
+            char[] bar = new char[(int) Math.ceil(40.0 * buckets[b] / most)];
+            Arrays.fill(bar, '#');
+            out.println(String.format("  < %10s %6d %s", micros(1L << b), buckets[b], new String(bar)));
+        }
+    }
+
+    private static String micros(long micros) {
+        if (micros >= 1000000) {
+            return String.format(Locale.US, "%.1fs", micros / 1e6);
+        } else if (micros >= 1000) {
+            return String.format(Locale.US, "%.1fms", micros / 1e3);
+        }
+        return micros + "us";
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs checks on worker threads and abandons those which do not finish in
+ * time, so one hanging check (blocking PRNG, unreachable KDC, PKCS11 token)
+ * does not hang the whole run. Workers come from cached pool, so abandoned
+ * worker is simply replaced by fresh one. When checks run on virtual
+ * threads, each check body gets its own virtual thread instead, so it is
+ * the check (and its pinning of carrier) which runs virtual, not just the
+ * thread waiting for it.
+ * Timeout is given by test (Settings.checkTimeout by default). If the check
+ * was seen in results of previous runs (Settings.timings), it gets
+ * ADAPTIVE_FACTOR times its longest previous duration instead, but at least
+ * timeout of the test divided by ADAPTIVE_DIVISOR (so a check which was
+ * lucky once is not cut off the next time) and never more than timeout of
+ * the test.
+ * Abandoned check can not be stopped, interrupt is ignored by most of
+ * crypto code (eg prime search), so it keeps running, and using cpu, until
+ * it finishes on its own.
+ */
+public class CheckWatchdog {
+
+    private static final int ADAPTIVE_FACTOR = 10;
+    private static final int ADAPTIVE_DIVISOR = 4;
+
+    private static ExecutorService workers;
+    private static Map<String, Long> history;
+
+    /**
+     * @return longest duration in nanoseconds of each check in previous runs,
+     * by type/provider/alias
+     */
+    static synchronized Map<String, Long> getHistory() {
+        if (history == null) {
+            history = new HashMap<>();
+            if (Settings.timings != null && new File(Settings.timings).exists()) {
+                loadHistory(Settings.timings);
+            }
+        }
+        return history;
+    }
+
+    private static void loadHistory(String file) {
+        int lines = 0;
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    Map<String, String> record = JsonLines.parse(line);
+                    String nanos = record.get("nanos");
+                    //timed out checks say nothing about how long the check takes
+                    if (nanos == null || AlgorithmCheck.Outcome.TIMEOUT.name().equals(record.get("outcome"))) {
+                        continue;
+                    }
+                    String key = getKey(record.get("type"), record.get("provider"), record.get("alias"));
+                    Long known = history.get(key);
+                    history.put(key, Math.max(known == null ? 0 : known, Long.parseLong(nanos)));
+                    lines++;
+                } catch (RuntimeException ex) {
+                    //line of other tool, or cut by killed run
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("Timings file " + file + " not used: " + ex);
+        }
+        System.out.println("Check timeouts adapted to " + lines + " records of " + file);
+    }
+
+    private static String getKey(String type, String provider, String alias) {
+        return type + "/" + provider + "/" + alias;
+    }
+
+    /**
+     * @param testTimeout timeout of the test in milliseconds, 0 for none
+     * @return timeout of the check in milliseconds, 0 for none
+     */
+    static long getTimeout(AlgorithmCheck check, long testTimeout) {
+        if (testTimeout <= 0) {
+            return 0;
+        }
+        Long previous = getHistory().get(getKey(check.getService().getType(), check.getProvider().getName(), check.getAlias()));
+        if (previous == null) {
+            return testTimeout;
+        }
+        long adaptive = Math.max(testTimeout / ADAPTIVE_DIVISOR, TimeUnit.NANOSECONDS.toMillis(previous) * ADAPTIVE_FACTOR);
+        return Math.min(testTimeout, adaptive);
+    }
+
+    private static synchronized ExecutorService getWorkers() {
+        if (workers == null && SweepExecutor.isVirtual()) {
+            workers = SweepExecutor.newVirtualThreadPerTaskExecutor();
+        }
+        if (workers == null) {
+            workers = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger counter = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "cryptotest-check-" + counter.incrementAndGet());
+                    //abandoned check must not keep jvm alive
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return workers;
+    }
+
+    /**
+     * Runs the check body on worker thread and waits for it. If it does not
+     * finish in time, the check gets TIMEOUT outcome and the worker is
+     * interrupted and left behind, still running the check if it ignores
+     * the interrupt.
+     */
+    static void run(AlgorithmCheck check, long timeout, final Runnable body) {
+        final AtomicReference<Thread> runner = new AtomicReference<>();
+        Future<?> f = getWorkers().submit(new Runnable() {
+            @Override
+            public void run() {
+                runner.set(Thread.currentThread());
+                body.run();
+            }
+        });
+        try {
+            f.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            Thread stuck = runner.get();
+            if (stuck == null) {
+                //not even started, all workers busy is not expected with cached pool
+                f.cancel(true);
+                check.setOutcome(AlgorithmCheck.Outcome.TIMEOUT, new Exception("Check did not start in " + timeout + "ms"));
+                return;
+            }
+            check.setOutcome(AlgorithmCheck.Outcome.TIMEOUT, new AlgorithmTimeoutException(timeout, stuck, getThreadDump()));
+            stuck.interrupt();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * @return stacks of all threads, with locks they wait for and their owners
+     */
+    public static String getThreadDump() {
+        StringBuilder sb = new StringBuilder();
+        for (ThreadInfo ti : ManagementFactory.getThreadMXBean().dumpAllThreads(true, true)) {
+            sb.append('"').append(ti.getThreadName()).append("\" ").append(ti.getThreadState());
+            if (ti.getLockName() != null) {
+                sb.append(" on ").append(ti.getLockName());
+            }
+            if (ti.getLockOwnerName() != null) {
+                sb.append(" owned by \"").append(ti.getLockOwnerName()).append('"');
+            }
+            sb.append('\n');
+            for (StackTraceElement e : ti.getStackTrace()) {
+                sb.append("\tat ").append(e).append('\n');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
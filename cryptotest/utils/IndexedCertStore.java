@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.Provider;
+import java.security.cert.CRL;
+import java.security.cert.CRLSelector;
+import java.security.cert.CertSelector;
+import java.security.cert.CertStoreParameters;
+import java.security.cert.CertStoreSpi;
+import java.security.cert.Certificate;
+import java.security.cert.CollectionCertStoreParameters;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * CertStore of a collection (as the "Collection" one), which indexes X.509
+ * certificates by subject, issuer and subject key identifier. X509CertSelector
+ * setting any of those (or the certificate itself) is matched only against
+ * certificates of the index, others against all of them. Registered only by
+ * benchmarks, through its Provider.
+ */
+public class IndexedCertStore extends CertStoreSpi {
+
+    public static final String TYPE = "Indexed";
+
+    private final Set<Certificate> all = new HashSet<>();
+    private final Collection<CRL> crls = new ArrayList<>();
+    private final Map<X500Principal, List<X509Certificate>> bySubject = new HashMap<>();
+    private final Map<X500Principal, List<X509Certificate>> byIssuer = new HashMap<>();
+    private final Map<ByteBuffer, List<X509Certificate>> byKeyIdentifier = new HashMap<>();
+
+    /**
+     * Provider of the single "Indexed" CertStore.
+     */
+    public static class IndexedProvider extends Provider {
+
+        public static final String NAME = "CryptoTestIndexed";
+
+        @SuppressWarnings("deprecation")
+        public IndexedProvider() {
+            //the (String, String, String) constructor is jdk 9+
+            super(NAME, 1.0, "CertStore indexed by subject, issuer and key identifier");
+            put("CertStore." + TYPE, IndexedCertStore.class.getName());
+        }
+    }
+
+    public IndexedCertStore(CertStoreParameters params) throws InvalidAlgorithmParameterException {
+        super(params);
+        if (!(params instanceof CollectionCertStoreParameters)) {
+            throw new InvalidAlgorithmParameterException("Expected CollectionCertStoreParameters, got " + params);
+        }
+        for (Object o : ((CollectionCertStoreParameters) params).getCollection()) {
+            if (o instanceof CRL) {
+                crls.add((CRL) o);
+            } else if (o instanceof Certificate) {
+                all.add((Certificate) o);
+                if (o instanceof X509Certificate) {
+                    index((X509Certificate) o);
+                }
+            }
+        }
+    }
+
+    private void index(X509Certificate cert) {
+        add(bySubject, cert.getSubjectX500Principal(), cert);
+        add(byIssuer, cert.getIssuerX500Principal(), cert);
+        //extension value is OCTET STRING wrapping the identifier's OCTET STRING, selector works with the inner one
+        byte[] ski = cert.getExtensionValue("2.5.29.14");
+        if (ski != null) {
+            add(byKeyIdentifier, ByteBuffer.wrap(unwrapOctetString(ski)), cert);
+        }
+    }
+
+    private static <K> void add(Map<K, List<X509Certificate>> index, K key, X509Certificate cert) {
+        List<X509Certificate> certs = index.get(key);
+        if (certs == null) {
+            certs = new ArrayList<>(1);
+            index.put(key, certs);
+        }
+        certs.add(cert);
+    }
+
+    private static byte[] unwrapOctetString(byte[] der) {
+        int offset = 2;
+        if ((der[1] & 0x80) != 0) {
+            offset += der[1] & 0x7f;
+        }
+        byte[] r = new byte[der.length - offset];
+        System.arraycopy(der, offset, r, 0, r.length);
+        return r;
+    }
+
+    @Override
+    public Collection<? extends Certificate> engineGetCertificates(CertSelector selector) {
+        if (selector == null) {
+            return new ArrayList<>(all);
+        }
+        Collection<? extends Certificate> candidates = all;
+        if (selector instanceof X509CertSelector) {
+            X509CertSelector x509 = (X509CertSelector) selector;
+            if (x509.getCertificate() != null) {
+                candidates = all.contains(x509.getCertificate())
+                        ? Collections.singletonList(x509.getCertificate()) : Collections.<Certificate>emptyList();
+            } else if (x509.getSubject() != null) {
+                candidates = get(bySubject, x509.getSubject());
+            } else if (x509.getSubjectKeyIdentifier() != null) {
+                candidates = get(byKeyIdentifier, ByteBuffer.wrap(x509.getSubjectKeyIdentifier()));
+            } else if (x509.getIssuer() != null) {
+                candidates = get(byIssuer, x509.getIssuer());
+            }
+        }
+        List<Certificate> r = new ArrayList<>();
+        for (Certificate cert : candidates) {
+            if (selector.match(cert)) {
+                r.add(cert);
+            }
+        }
+        return r;
+    }
+
+    private static <K> List<X509Certificate> get(Map<K, List<X509Certificate>> index, K key) {
+        List<X509Certificate> certs = index.get(key);
+        return certs == null ? Collections.<X509Certificate>emptyList() : certs;
+    }
+
+    @Override
+    public Collection<? extends CRL> engineGetCRLs(CRLSelector selector) {
+        List<CRL> r = new ArrayList<>();
+        for (CRL crl : crls) {
+            if (selector == null || selector.match(crl)) {
+                r.add(crl);
+            }
+        }
+        return r;
+    }
+}
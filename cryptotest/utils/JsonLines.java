@@ -0,0 +1,238 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writer of JSON Lines files, one flat JSON object per line. Each line is
+ * flushed when written, so the file can be followed while tests run, and
+ * nothing is kept in memory. Files are appended to, so results of more
+ * jvms (eg jtreg runs of individual tests) can go to one file.
+ */
+public class JsonLines {
+
+    private static JsonLines results;
+    private static boolean resultsOpened;
+
+    private final Writer writer;
+
+    public JsonLines(String file) throws IOException {
+        this(file, true);
+    }
+
+    /**
+     * @param append false to start the file again, dropping its content
+     */
+    public JsonLines(String file, boolean append) throws IOException {
+        writer = new OutputStreamWriter(new FileOutputStream(file, append), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return sink of check results set by cryptotests.results, or null if none is set or it can not be opened
+     */
+    public static synchronized JsonLines getResults() {
+        if (!resultsOpened) {
+            resultsOpened = true;
+            if (Settings.results != null) {
+                try {
+                    results = new JsonLines(Settings.results);
+                } catch (IOException ex) {
+                    System.err.println("Results file " + Settings.results + " not used: " + ex);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @param keysAndValues alternating keys and values; values may be strings, numbers, booleans or null
+     */
+    public synchronized void write(Object... keysAndValues) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            quote(sb, String.valueOf(keysAndValues[i]));
+            sb.append(':');
+            Object value = keysAndValues[i + 1];
+            if (value == null || value instanceof Number || value instanceof Boolean) {
+                sb.append(value);
+            } else {
+                quote(sb, value.toString());
+            }
+        }
+        sb.append("}\n");
+        try {
+            writer.write(sb.toString());
+            writer.flush();
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    public static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Reads one line written by write back.
+     *
+     * @return values by keys, numbers and booleans as strings
+     * @throws IllegalArgumentException if line is not flat JSON object
+     */
+    public static Map<String, String> parse(String line) {
+        Map<String, String> r = new HashMap<>();
+        int[] pos = {skipSpaces(line, 0)};
+        expect(line, pos, '{');
+        if (line.charAt(skipSpaces(line, pos[0])) == '}') {
+            return r;
+        }
+        while (true) {
+            pos[0] = skipSpaces(line, pos[0]);
+            String key = readString(line, pos);
+            pos[0] = skipSpaces(line, pos[0]);
+            expect(line, pos, ':');
+            pos[0] = skipSpaces(line, pos[0]);
+            String value;
+            if (line.charAt(pos[0]) == '"') {
+                value = readString(line, pos);
+            } else {
+                int start = pos[0];
+                while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0) {
+                    pos[0]++;
+                }
+                value = line.substring(start, pos[0]);
+                if (value.equals("null")) {
+                    value = null;
+                }
+            }
+            r.put(key, value);
+            pos[0] = skipSpaces(line, pos[0]);
+            if (pos[0] < line.length() && line.charAt(pos[0]) == ',') {
+                pos[0]++;
+            } else {
+                expect(line, pos, '}');
+                return r;
+            }
+        }
+    }
+
+    private static int skipSpaces(String line, int pos) {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static void expect(String line, int[] pos, char c) {
+        if (pos[0] >= line.length() || line.charAt(pos[0]) != c) {
+            throw new IllegalArgumentException("Expected " + c + " at " + pos[0] + ": " + line);
+        }
+        pos[0]++;
+    }
+
+    private static String readString(String line, int[] pos) {
+        expect(line, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos[0] >= line.length()) {
+                throw new IllegalArgumentException("Unterminated string: " + line);
+            }
+            char c = line.charAt(pos[0]++);
+            if (c == '"') {
+                return sb.toString();
+            } else if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos[0] >= line.length()) {
+                throw new IllegalArgumentException("Unterminated string: " + line);
+            }
+            char e = line.charAt(pos[0]++);
+            switch (e) {
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'u':
+                    if (pos[0] + 4 > line.length()) {
+                        throw new IllegalArgumentException("Unterminated string: " + line);
+                    }
+                    sb.append((char) Integer.parseInt(line.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                    break;
+                default:
+                    sb.append(e);
+            }
+        }
+    }
+}
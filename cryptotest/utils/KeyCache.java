@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.security.Provider;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keys generated by KeysNaiveGenerator, shared by all checks of the run.
+ * Generating RSA or DSA key for every alias is what made the sweep slow,
+ * so each (algorithm, size, provider) shape is generated once, and least
+ * recently used shapes are dropped when there are too many of them.
+ * Can be turned off by cryptotests.keyCache=false.
+ */
+public class KeyCache {
+
+    public interface Generator<T, E extends Exception> {
+
+        T generate() throws E;
+    }
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final Map<Id, Slot> slots = new LinkedHashMap<Id, Slot>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Id, Slot> eldest) {
+            return size() > Settings.keyCacheSize;
+        }
+    };
+
+    /**
+     * @param size size of key, 0 for default one
+     * @return key generated earlier for same shape, or new one from generator
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, E extends Exception> T get(String algorithm, int size, Provider provider, Generator<T, E> generator) throws E {
+        if (!Settings.keyCache) {
+            return generator.generate();
+        }
+        Slot slot;
+        synchronized (slots) {
+            Id id = new Id(algorithm, size, provider);
+            slot = slots.get(id);
+            if (slot == null) {
+                slot = new Slot();
+                slots.put(id, slot);
+            }
+        }
+        //other threads needing same shape wait here, instead of generating it too
+        synchronized (slot) {
+            if (slot.value == null) {
+                misses.incrementAndGet();
+                slot.value = generator.generate();
+            } else {
+                hits.incrementAndGet();
+            }
+            return (T) slot.value;
+        }
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    public static String getSummary() {
+        if (!Settings.keyCache) {
+            return "Key cache: disabled";
+        }
+        return "Key cache: " + getHits() + " hits, " + getMisses() + " misses";
+    }
+
+    private static class Slot {
+
+        private Object value;
+    }
+
+    private static class Id {
+
+        private final String algorithm;
+        private final int size;
+        private final Provider provider;
+
+        Id(String algorithm, int size, Provider provider) {
+            this.algorithm = algorithm;
+            this.size = size;
+            this.provider = provider;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Id)) {
+                return false;
+            }
+            Id other = (Id) obj;
+            //providers are compared by identity, same named providers may be configured differently
+            return algorithm.equals(other.algorithm) && size == other.size && provider == other.provider;
+        }
+
+        @Override
+        public int hashCode() {
+            return (algorithm.hashCode() * 31 + size) * 31 + System.identityHashCode(provider);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-generated key pairs, so fresh jvm does not have to generate slow keys
+ * (RSA, DSA, DH, ML-DSA...) again. The corpus is one file with an index of
+ * key shapes followed by X.509 and PKCS#8 encodings of the keys. It is
+ * memory-mapped, and keys are rebuilt by KeyFactory of the provider which
+ * asked for them. When the shape is missing, or the provider can not import
+ * the key, null is returned and caller has to generate the key itself.
+ * Generate it by `make key-corpus` and use it by -Dcryptotests.keyCorpus=file.
+ */
+public class KeyCorpus {
+
+    private static final int MAGIC = 0x43544b43;
+    private static final int VERSION = 1;
+
+    //name and size, as KeysNaiveGenerator asks for them
+    private static final Object[][] SHAPES = {
+        {"RSA", 0}, {"RSASSA-PSS", 0}, {"DSA", 0}, {"DSA", 1024}, {"EC", 0}, {"DiffieHellman", 0},
+        {"Ed25519", 0}, {"Ed448", 0}, {"EdDSA", 0}, {"X25519", 0}, {"X448", 0}, {"XDH", 0},
+        {"ML-DSA", 0}, {"ML-DSA-44", 0}, {"ML-DSA-65", 0}, {"ML-DSA-87", 0},
+        {"ML-KEM", 0}, {"ML-KEM-512", 0}, {"ML-KEM-768", 0}, {"ML-KEM-1024", 0},};
+
+    private static KeyCorpus instance;
+    private static boolean loaded;
+
+    private final ByteBuffer data;
+    private final Map<String, Entry> index = new HashMap<>();
+
+    private static class Entry {
+
+        private String keyAlgorithm;
+        private int publicOffset;
+        private int publicLength;
+        private int privateOffset;
+        private int privateLength;
+    }
+
+    private KeyCorpus(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a key corpus, or of different version");
+        }
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            String name = readString(buffer);
+            int size = buffer.getInt();
+            Entry e = new Entry();
+            e.keyAlgorithm = readString(buffer);
+            e.publicOffset = buffer.getInt();
+            e.publicLength = buffer.getInt();
+            e.privateOffset = buffer.getInt();
+            e.privateLength = buffer.getInt();
+            index.put(getId(name, size), e);
+        }
+        data = buffer.slice();
+    }
+
+    private static String getId(String name, int size) {
+        return name + "/" + size;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] b = new byte[buffer.getShort()];
+        buffer.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(b.length);
+        out.write(b);
+    }
+
+    private byte[] read(int offset, int length) {
+        //duplicate, so concurrent readers do not share position
+        ByteBuffer b = data.duplicate();
+        b.position(offset);
+        byte[] r = new byte[length];
+        b.get(r);
+        return r;
+    }
+
+    /**
+     * @return corpus set by cryptotests.keyCorpus, or null if none is set or it can not be read
+     */
+    public static synchronized KeyCorpus getInstance() {
+        if (!loaded) {
+            loaded = true;
+            if (Settings.keyCorpus != null) {
+                try (FileChannel ch = FileChannel.open(Paths.get(Settings.keyCorpus), StandardOpenOption.READ)) {
+                    //mapping stays valid after the channel is closed
+                    instance = new KeyCorpus(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+                } catch (IOException | RuntimeException ex) {
+                    System.err.println("Key corpus " + Settings.keyCorpus + " not used: " + ex);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return key pair from corpus imported by provider, or null if it has to be generated
+     */
+    public static KeyPair getKeyPair(String name, int size, Provider provider) {
+        KeyCorpus corpus = getInstance();
+        if (corpus == null || Misc.isPkcs11Fips(provider)) {
+            //pkcs11 in FIPS mode can not import private keys
+            return null;
+        }
+        Entry e = corpus.index.get(getId(name, size));
+        if (e == null) {
+            return null;
+        }
+        try {
+            KeyFactory kf = KeyFactory.getInstance(e.keyAlgorithm, provider);
+            return new KeyPair(
+                    kf.generatePublic(new X509EncodedKeySpec(corpus.read(e.publicOffset, e.publicLength))),
+                    kf.generatePrivate(new PKCS8EncodedKeySpec(corpus.read(e.privateOffset, e.privateLength))));
+        } catch (GeneralSecurityException | RuntimeException ex) {
+            //no key factory in provider, or it rejects the key
+            return null;
+        }
+    }
+
+    public static void write(OutputStream os) throws IOException {
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
+        DataOutputStream idx = new DataOutputStream(indexBytes);
+        int count = 0;
+        for (Object[] shape : SHAPES) {
+            String name = (String) shape[0];
+            int size = (Integer) shape[1];
+            KeyPair kp;
+            try {
+                KeyPairGenerator kpg = KeyPairGenerator.getInstance(name);
+                if (size > 0) {
+                    kpg.initialize(size);
+                }
+                kp = kpg.generateKeyPair();
+            } catch (NoSuchAlgorithmException ex) {
+                System.out.println(getId(name, size) + ": not available");
+                continue;
+            }
+            byte[] pub = kp.getPublic().getEncoded();
+            byte[] priv = kp.getPrivate().getEncoded();
+            if (pub == null || priv == null) {
+                System.out.println(getId(name, size) + ": not encodable");
+                continue;
+            }
+            writeString(idx, name);
+            idx.writeInt(size);
+            writeString(idx, kp.getPublic().getAlgorithm());
+            idx.writeInt(dataBytes.size());
+            idx.writeInt(pub.length);
+            dataBytes.write(pub);
+            idx.writeInt(dataBytes.size());
+            idx.writeInt(priv.length);
+            dataBytes.write(priv);
+            count++;
+            System.out.println(getId(name, size) + ": " + kp.getPublic().getAlgorithm());
+        }
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(count);
+        indexBytes.writeTo(out);
+        dataBytes.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * @param args file to write the corpus to
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Expected one argument - file to write key corpus to");
+        }
+        try (OutputStream os = new FileOutputStream(args[0])) {
+            write(os);
+        }
+    }
+}
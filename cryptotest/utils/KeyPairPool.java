@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Key pairs generated ahead by background daemon threads, up to capacity,
+ * so slow generation (eg RSA-4096) does not stall the thread needing a key.
+ * When the pool is empty, the key is generated on the calling thread.
+ */
+public class KeyPairPool implements AutoCloseable {
+
+    private final String algorithm;
+    private final int keySize;
+    private final Provider provider;
+    private final BlockingQueue<KeyPair> queue;
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    //generator for callers finding the pool empty, generators are not thread safe
+    private KeyPairGenerator fallback;
+    private volatile Exception failure;
+
+    /**
+     * @param keySize 0 for default one
+     */
+    public KeyPairPool(String algorithm, int keySize, Provider provider, int capacity, int threadCount) throws NoSuchAlgorithmException {
+        this.algorithm = algorithm;
+        this.keySize = keySize;
+        this.provider = provider;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        //fail early if there is no such generator
+        fallback = createGenerator();
+        for (int i = 0; i < threadCount; i++) {
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    fill();
+                }
+            }, "cryptotest-keypool-" + algorithm + "-" + i);
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+    }
+
+    private KeyPairGenerator createGenerator() throws NoSuchAlgorithmException {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance(algorithm, provider);
+        if (keySize > 0) {
+            kpg.initialize(keySize);
+        }
+        return kpg;
+    }
+
+    private void fill() {
+        try {
+            KeyPairGenerator kpg = createGenerator();
+            while (!Thread.currentThread().isInterrupted()) {
+                queue.put(kpg.generateKeyPair());
+            }
+        } catch (InterruptedException ex) {
+            //closed
+        } catch (Exception ex) {
+            failure = ex;
+        }
+    }
+
+    /**
+     * @return pre-generated key pair, or null when there is none right now. Never blocks.
+     */
+    public KeyPair poll() {
+        KeyPair kp = queue.poll();
+        if (kp != null) {
+            hits.incrementAndGet();
+        }
+        return kp;
+    }
+
+    /**
+     * @return pre-generated key pair, or key pair generated now when there is none
+     */
+    public KeyPair get() {
+        KeyPair kp = poll();
+        if (kp != null) {
+            return kp;
+        }
+        misses.incrementAndGet();
+        synchronized (this) {
+            return fallback.generateKeyPair();
+        }
+    }
+
+    /**
+     * Waits until the pool is full, eg before measuring.
+     *
+     * @return whether the pool got full in time
+     */
+    public boolean awaitFull(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (queue.remainingCapacity() > 0) {
+            if (failure != null || System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return exception which stopped background generation, null if there is none
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    @Override
+    public void close() {
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        queue.clear();
+    }
+}
@@ -25,6 +25,7 @@
 package cryptotest.utils;
 
 import java.lang.reflect.Field;
+import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.Key;
 import java.security.KeyPair;
@@ -32,6 +33,7 @@ import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.Provider;
+import java.security.ProviderException;
 import java.security.spec.InvalidKeySpecException;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
@@ -117,16 +119,38 @@ public class KeysNaiveGenerator {
         return params;
     }
 
-    public static SecretKey getTlsRsaPremasterSecret(Provider provider, int major, int minor) throws InvalidAlgorithmParameterException, NoSuchAlgorithmException {
-        KeyGenerator kg = getKeyGenerator("SunTlsRsaPremasterSecret", provider);
-        kg.init(getTlsPremasterParam(major, minor));
-        return kg.generateKey();
+    public static SecretKey getTlsRsaPremasterSecret(final Provider provider, final int major, final int minor) throws InvalidAlgorithmParameterException, NoSuchAlgorithmException {
+        return getTlsSecret("SunTlsRsaPremasterSecret", provider, major, minor, new KeyCache.Generator<SecretKey, GeneralSecurityException>() {
+            @Override
+            public SecretKey generate() throws GeneralSecurityException {
+                KeyGenerator kg = getKeyGenerator("SunTlsRsaPremasterSecret", provider);
+                kg.init(getTlsPremasterParam(major, minor));
+                return kg.generateKey();
+            }
+        });
     }
 
-    public static SecretKey getTlsMasterSecret(Provider provider, int major, int minor) throws InvalidAlgorithmParameterException, NoSuchAlgorithmException {
-        KeyGenerator kg = getKeyGenerator("SunTls12MasterSecret", provider);
-        kg.init(getTlsMasterParam(provider, major, minor));
-        return kg.generateKey();
+    public static SecretKey getTlsMasterSecret(final Provider provider, final int major, final int minor) throws InvalidAlgorithmParameterException, NoSuchAlgorithmException {
+        return getTlsSecret("SunTls12MasterSecret", provider, major, minor, new KeyCache.Generator<SecretKey, GeneralSecurityException>() {
+            @Override
+            public SecretKey generate() throws GeneralSecurityException {
+                KeyGenerator kg = getKeyGenerator("SunTls12MasterSecret", provider);
+                kg.init(getTlsMasterParam(provider, major, minor));
+                return kg.generateKey();
+            }
+        });
+    }
+
+    private static SecretKey getTlsSecret(String name, Provider provider, int major, int minor,
+            KeyCache.Generator<SecretKey, GeneralSecurityException> generator) throws InvalidAlgorithmParameterException, NoSuchAlgorithmException {
+        try {
+            //protocol version stands for size of the key
+            return KeyCache.get(name, major << 8 | minor, provider, generator);
+        } catch (InvalidAlgorithmParameterException | NoSuchAlgorithmException ex) {
+            throw ex;
+        } catch (GeneralSecurityException ex) {
+            throw new ProviderException(ex);
+        }
     }
 
     // Complicated way to obtain Mac key when there are no Mac key generators available (FIPS mode)
@@ -160,9 +184,41 @@ public class KeysNaiveGenerator {
         return keyGenerator.generateKey();
     }
 
+    /**
+     * Cached key pair of default size, from generator of provider, or of any provider if it has none.
+     */
+    public static KeyPair getKeyPair(String name, Provider provider) throws NoSuchAlgorithmException {
+        return getKeyPair(name, 0, provider);
+    }
+
+    /**
+     * Cached key pair from generator of provider only.
+     */
+    public static KeyPair getProviderKeyPair(String name, Provider provider) throws NoSuchAlgorithmException {
+        //throws if provider has no such generator, the key itself is shared with getKeyPair
+        KeyPairGenerator.getInstance(name, provider);
+        return getKeyPair(name, provider);
+    }
+
+    private static KeyPair getKeyPair(final String name, final int size, final Provider provider) throws NoSuchAlgorithmException {
+        return KeyCache.get(name, size, provider, new KeyCache.Generator<KeyPair, NoSuchAlgorithmException>() {
+            @Override
+            public KeyPair generate() throws NoSuchAlgorithmException {
+                KeyPair kp = KeyCorpus.getKeyPair(name, size, provider);
+                if (kp != null) {
+                    return kp;
+                }
+                KeyPairGenerator keyGen = getKeyPairGenerator(name, provider);
+                if (size > 0) {
+                    keyGen.initialize(size);
+                }
+                return keyGen.genKeyPair();
+            }
+        });
+    }
+
     public static KeyPair getRsaKeyPair(Provider provider) throws NoSuchAlgorithmException {
-        KeyPairGenerator keyGen = getKeyPairGenerator("RSA", provider);
-        return keyGen.genKeyPair();
+        return getKeyPair("RSA", provider);
     }
 
     public static PrivateKey getRsaPrivateKey(Provider provider) throws NoSuchAlgorithmException {
@@ -171,8 +227,7 @@ public class KeysNaiveGenerator {
     }
 
     public static KeyPair getDsaKeyPair(Provider provider) throws NoSuchAlgorithmException {
-        KeyPairGenerator keyGen = getKeyPairGenerator("DSA", provider);
-        return keyGen.genKeyPair();
+        return getKeyPair("DSA", provider);
     }
 
     public static PrivateKey getDsaPrivateKey(Provider provider) throws NoSuchAlgorithmException {
@@ -180,9 +235,7 @@ public class KeysNaiveGenerator {
     }
 
     public static KeyPair getDsaKeyPair1024(Provider provider) throws NoSuchAlgorithmException {
-        KeyPairGenerator keyGen = getKeyPairGenerator("DSA", provider);
-        keyGen.initialize(1024);
-        return keyGen.genKeyPair();
+        return getKeyPair("DSA", 1024, provider);
     }
 
     public static PrivateKey getDsaPrivateKey1024(Provider provider) throws NoSuchAlgorithmException {
@@ -190,8 +243,7 @@ public class KeysNaiveGenerator {
     }
 
     public static KeyPair getEcKeyPair(Provider provider) throws NoSuchAlgorithmException {
-        KeyPairGenerator keyGen = getKeyPairGenerator("EC", provider);
-        return keyGen.genKeyPair();
+        return getKeyPair("EC", provider);
     }
 
     public static PrivateKey getEcPrivateKey(Provider provider) throws NoSuchAlgorithmException {
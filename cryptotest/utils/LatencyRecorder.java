@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Collects durations in nanoseconds and reports percentiles of them.
+ * When more samples than capacity are recorded, uniform sample of them is kept.
+ * Not thread safe, use one recorder per thread and merge them.
+ */
+public class LatencyRecorder {
+
+    private static final int CAPACITY = 1 << 20;
+
+    private final Random random = new Random(0);
+    private long[] samples = new long[1024];
+    private int size;
+    private long count;
+    private long total;
+    private long max;
+    private boolean sorted;
+
+    public void record(long nanos) {
+        count++;
+        total += nanos;
+        max = Math.max(max, nanos);
+        sorted = false;
+        if (size < CAPACITY) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        } else {
+            long i = (long) (random.nextDouble() * count);
+            if (i < CAPACITY) {
+                samples[(int) i] = nanos;
+            }
+        }
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.samples[i]);
+        }
+        //samples of other may be just part of what it has seen
+        count += other.count - other.size;
+        total += other.total - other.sum(other.size);
+    }
+
+    private long sum(int n) {
+        long r = 0;
+        for (int i = 0; i < n; i++) {
+            r += samples[i];
+        }
+        return r;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMean() {
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * @param percentile eg 99.9
+     */
+    public long getPercentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, size);
+            sorted = true;
+        }
+        int i = (int) Math.ceil(percentile / 100 * size) - 1;
+        return samples[Math.max(0, Math.min(size - 1, i))];
+    }
+
+}
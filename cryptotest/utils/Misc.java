@@ -28,8 +28,6 @@ import cryptotest.Settings;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.security.Provider;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -75,13 +73,11 @@ public class Misc {
         }
     }
 
-    private static List<String> getAliasesImpl(Provider.Service service) throws
-            InvocationTargetException, ClassNotFoundException, IllegalArgumentException, NoSuchMethodException,
-            SecurityException, IllegalAccessException {
-        Class cls = Class.forName("java.security.Provider$Service");
-        Method m = cls.getDeclaredMethod("getAliases");
-        m.setAccessible(true);
-        return (List<String>) m.invoke(service);
+    private static final ApiBridge GET_ALIASES = ApiBridge.declaredMethod(Provider.Service.class, "getAliases");
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getAliasesImpl(Provider.Service service) throws ReflectiveOperationException {
+        return (List<String>) GET_ALIASES.invoke(service);
     }
 
     /*
@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records jdk.VirtualThreadPinned JFR events while checks run on virtual
+ * threads, to find provider code which pins the carrier thread (typically
+ * blocking inside synchronized). JFR api is called by reflection, so this
+ * compiles on jdk 8, it does nothing where JFR or the event is missing.
+ */
+public class PinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int TOP = 20;
+
+    private static final ApiBridge RECORDING = ApiBridge.constructor("jdk.jfr.Recording");
+    private static final ApiBridge ENABLE = ApiBridge.method("jdk.jfr.Recording", "enable", String.class);
+    private static final ApiBridge WITH_STACK_TRACE = ApiBridge.method("jdk.jfr.EventSettings", "withStackTrace");
+    private static final ApiBridge WITH_THRESHOLD = ApiBridge.method("jdk.jfr.EventSettings", "withThreshold", Duration.class);
+    private static final ApiBridge START = ApiBridge.method("jdk.jfr.Recording", "start");
+    private static final ApiBridge STOP = ApiBridge.method("jdk.jfr.Recording", "stop");
+    private static final ApiBridge DUMP = ApiBridge.method("jdk.jfr.Recording", "dump", Path.class);
+    private static final ApiBridge CLOSE = ApiBridge.method("jdk.jfr.Recording", "close");
+    private static final ApiBridge READ_ALL_EVENTS = ApiBridge.method("jdk.jfr.consumer.RecordingFile", "readAllEvents", Path.class);
+    private static final ApiBridge GET_DURATION = ApiBridge.method("jdk.jfr.consumer.RecordedEvent", "getDuration");
+    private static final ApiBridge GET_STACK_TRACE = ApiBridge.method("jdk.jfr.consumer.RecordedEvent", "getStackTrace");
+    private static final ApiBridge GET_FRAMES = ApiBridge.method("jdk.jfr.consumer.RecordedStackTrace", "getFrames");
+    private static final ApiBridge GET_METHOD = ApiBridge.method("jdk.jfr.consumer.RecordedFrame", "getMethod");
+    private static final ApiBridge GET_TYPE = ApiBridge.method("jdk.jfr.consumer.RecordedMethod", "getType");
+    private static final ApiBridge GET_METHOD_NAME = ApiBridge.method("jdk.jfr.consumer.RecordedMethod", "getName");
+    private static final ApiBridge GET_CLASS_NAME = ApiBridge.method("jdk.jfr.consumer.RecordedClass", "getName");
+
+    private static Object recording;
+
+    public static synchronized void start() {
+        if (recording != null) {
+            return;
+        }
+        try {
+            Object r = RECORDING.call();
+            Object settings = ENABLE.call(r, EVENT);
+            WITH_STACK_TRACE.call(settings);
+            // every pinning is reported, not only those longer than default 20ms
+            WITH_THRESHOLD.call(settings, Duration.ZERO);
+            START.call(r);
+            recording = r;
+        } catch (Exception ex) {
+            System.out.println("Pinning of virtual threads will not be reported: " + ex);
+        }
+    }
+
+    /**
+     * Stops the recording and prints places where virtual threads were pinned,
+     * most frequent first. Does nothing if the recording was not started.
+     */
+    public static synchronized void printReport(PrintStream out) {
+        if (recording == null) {
+            return;
+        }
+        Path file = null;
+        try {
+            STOP.call(recording);
+            file = Files.createTempFile("cryptotest-pinning", ".jfr");
+            DUMP.call(recording, file);
+            printReport((List<?>) READ_ALL_EVENTS.call(file), out);
+        } catch (Exception ex) {
+            out.println("Failed to read pinning events: " + ex);
+        } finally {
+            try {
+                CLOSE.call(recording);
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (Exception ex) {
+                out.println("Failed to clean up pinning recording: " + ex);
+            }
+            recording = null;
+        }
+    }
+
+    private static void printReport(List<?> events, PrintStream out) throws Exception {
+        Map<String, Pinning> places = new HashMap<>();
+        for (Object event : events) {
+            String place = getPlace(event);
+            Pinning p = places.get(place);
+            if (p == null) {
+                p = new Pinning(place);
+                places.put(place, p);
+            }
+            p.count++;
+            p.nanos += ((Duration) GET_DURATION.call(event)).toNanos();
+        }
+        List<Pinning> sorted = new ArrayList<>(places.values());
+        Collections.sort(sorted, new Comparator<Pinning>() {
+            @Override
+            public int compare(Pinning o1, Pinning o2) {
+                return Long.compare(o2.count, o1.count);
+            }
+        });
+        out.println("Virtual threads pinned: " + events.size() + " times, at " + places.size() + " places");
+        for (int i = 0; i < sorted.size() && i < TOP; i++) {
+            Pinning p = sorted.get(i);
+            out.println(String.format(Locale.US, "%6d x %10.1fms  %s", p.count, p.nanos / 1e6, p.place));
+        }
+    }
+
+    /**
+     * @return first frame out of core jdk classes (which is where the pinning
+     * lock was held, usually a provider), and the test it was called from
+     */
+    private static String getPlace(Object event) throws Exception {
+        Object stack = GET_STACK_TRACE.call(event);
+        if (stack == null) {
+            return "unknown";
+        }
+        String place = null;
+        String test = null;
+        for (Object frame : (List<?>) GET_FRAMES.call(stack)) {
+            Object method = GET_METHOD.call(frame);
+            String type = (String) GET_CLASS_NAME.call(GET_TYPE.call(method));
+            if (place == null && !type.startsWith("java.") && !type.startsWith("jdk.internal.")) {
+                place = type + "." + GET_METHOD_NAME.call(method);
+            }
+            if (type.startsWith("cryptotest.tests.")) {
+                test = type.substring("cryptotest.tests.".length());
+                break;
+            }
+        }
+        return (place == null ? "jdk" : place) + (test == null ? "" : " (" + test + ")");
+    }
+
+    private static class Pinning {
+
+        private final String place;
+        private long count;
+        private long nanos;
+
+        Pinning(String place) {
+            this.place = place;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * PKI fixtures (hierarchy of PkiGenerator, CRL of each of its CAs and
+ * keystores of them) generated from a seed, so the same parameters give the
+ * same fixture. Generated fixture is cached in Settings.fixtures directory,
+ * in file named by hash of its parameters, with certificates, CRLs and
+ * PKCS#8 private keys followed by SHA-256 of all of it. Other jvms (and
+ * other jdks) parse the file instead of generating and signing all again;
+ * file with wrong hash is generated again.
+ */
+public class PkiFixtures {
+
+    private static final int MAGIC = 0x43545046;
+    private static final int VERSION = 1;
+    //seed of the fixture used by tests
+    public static final long DEFAULT_SEED = 1422738;
+    public static final char[] PASSWORD = "password".toCharArray();
+
+    private static final Map<String, Fixture> fixtures = new HashMap<>();
+
+    /**
+     * Hierarchy with CRLs of its CAs.
+     */
+    public static class Fixture {
+
+        public final PkiGenerator.Hierarchy hierarchy;
+        //one for each CA of hierarchy, in the same order
+        public final List<X509CRL> crls;
+
+        Fixture(PkiGenerator.Hierarchy hierarchy, List<X509CRL> crls) {
+            this.hierarchy = hierarchy;
+            this.crls = Collections.unmodifiableList(crls);
+        }
+
+        /**
+         * @return keystore with root as trusted certificate "root" and key of
+         * each leaf (with its chain) as "leaf" followed by its index, all
+         * protected by PASSWORD
+         */
+        public KeyStore createKeyStore(String type) throws GeneralSecurityException, IOException {
+            KeyStore ks = KeyStore.getInstance(type);
+            ks.load(null, PASSWORD);
+            ks.setCertificateEntry("root", hierarchy.root.certificate);
+            for (int i = 0; i < hierarchy.leaves.size(); i++) {
+                List<X509Certificate> chain = new ArrayList<>(hierarchy.chains.get(i));
+                chain.add(hierarchy.root.certificate);
+                ks.setKeyEntry("leaf" + i, hierarchy.leaves.get(i).keys.getPrivate(), PASSWORD,
+                        chain.toArray(new X509Certificate[chain.size()]));
+            }
+            return ks;
+        }
+    }
+
+    /**
+     * @return RSA root, CA and leaf, with empty CRLs, as used by tests
+     */
+    public static Fixture getDefault() throws GeneralSecurityException, IOException {
+        return get("RSA", 2, 1, 0, DEFAULT_SEED);
+    }
+
+    /**
+     * @param keyType see PkiGenerator
+     * @param depth see PkiGenerator.generate
+     * @param fanOut see PkiGenerator.generate
+     * @param revoked number of (made up) serial numbers in CRL of each CA
+     */
+    public static synchronized Fixture get(String keyType, int depth, int fanOut, int revoked, long seed)
+            throws GeneralSecurityException, IOException {
+        String spec = "v" + VERSION + " " + keyType + " " + depth + " " + fanOut + " " + revoked + " " + seed;
+        Fixture fixture = fixtures.get(spec);
+        if (fixture != null) {
+            return fixture;
+        }
+        File file = null;
+        if (Settings.fixtures != null && !Settings.fixtures.isEmpty()) {
+            file = new File(Settings.fixtures, keyType + "-" + hex(sha256(spec.getBytes(StandardCharsets.UTF_8))).substring(0, 16) + ".fixture");
+            if (file.exists()) {
+                try {
+                    fixture = read(Files.readAllBytes(file.toPath()));
+                } catch (IOException | GeneralSecurityException | RuntimeException ex) {
+                    System.err.println("Fixture " + file + " generated again: " + ex);
+                }
+            }
+        }
+        if (fixture == null) {
+            fixture = generate(keyType, depth, fanOut, revoked, seed);
+            if (file != null) {
+                try {
+                    save(fixture, file);
+                } catch (IOException ex) {
+                    System.err.println("Fixture " + file + " not saved: " + ex);
+                }
+            }
+        }
+        fixtures.put(spec, fixture);
+        return fixture;
+    }
+
+    private static Fixture generate(String keyType, int depth, int fanOut, int revoked, long seed) throws GeneralSecurityException {
+        //SHA1PRNG seeded before its first use is deterministic, unlike the default SecureRandom
+        SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+        random.setSeed(seed);
+        PkiGenerator generator = new PkiGenerator(keyType, random);
+        PkiGenerator.Hierarchy hierarchy = generator.generate(keyType + " " + seed, depth, fanOut);
+        List<X509CRL> crls = new ArrayList<>(hierarchy.cas.size());
+        for (PkiGenerator.Credential ca : hierarchy.cas) {
+            List<BigInteger> serials = new ArrayList<>(revoked);
+            for (int i = 0; i < revoked; i++) {
+                serials.add(generator.nextSerial());
+            }
+            crls.add(generator.createCrl(ca, serials, 1));
+        }
+        return new Fixture(hierarchy, crls);
+    }
+
+    /**
+     * Writes to temporary file first, so concurrent jvms never read half of it.
+     */
+    private static void save(Fixture fixture, File file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        Map<X509Certificate, PkiGenerator.Credential> credentials = new HashMap<>();
+        for (PkiGenerator.Credential c : fixture.hierarchy.cas) {
+            credentials.put(c.certificate, c);
+        }
+        for (PkiGenerator.Credential c : fixture.hierarchy.leaves) {
+            credentials.put(c.certificate, c);
+        }
+        List<X509Certificate> certificates = new ArrayList<>();
+        certificates.add(fixture.hierarchy.root.certificate);
+        certificates.addAll(fixture.hierarchy.certificates);
+        //subjects are unique within hierarchy, and issuers precede what they issued
+        Map<X500Principal, Integer> indexes = new HashMap<>();
+        out.writeInt(certificates.size());
+        for (int i = 0; i < certificates.size(); i++) {
+            X509Certificate cert = certificates.get(i);
+            indexes.put(cert.getSubjectX500Principal(), i);
+            out.writeInt(i == 0 ? -1 : indexes.get(cert.getIssuerX500Principal()));
+            try {
+                writeBytes(out, cert.getEncoded());
+            } catch (GeneralSecurityException ex) {
+                throw new IOException(ex);
+            }
+            PrivateKey key = credentials.get(cert).keys.getPrivate();
+            out.writeUTF(key.getAlgorithm());
+            writeBytes(out, key.getEncoded());
+        }
+        out.writeInt(fixture.crls.size());
+        for (X509CRL crl : fixture.crls) {
+            try {
+                writeBytes(out, crl.getEncoded());
+            } catch (GeneralSecurityException ex) {
+                throw new IOException(ex);
+            }
+        }
+        out.flush();
+        byte[] content = bytes.toByteArray();
+        file.getParentFile().mkdirs();
+        File tmp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+        try {
+            try (OutputStream fileOut = Files.newOutputStream(tmp.toPath())) {
+                fileOut.write(content);
+                fileOut.write(sha256(content));
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    private static Fixture read(byte[] file) throws IOException, GeneralSecurityException {
+        if (file.length < 32) {
+            throw new IOException("Truncated fixture");
+        }
+        byte[] content = Arrays.copyOf(file, file.length - 32);
+        if (!Arrays.equals(sha256(content), Arrays.copyOfRange(file, file.length - 32, file.length))) {
+            throw new IOException("Hash of fixture does not match");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a fixture, or of different version");
+        }
+        CertificateFactory cf = CertificateFactory.getInstance("X.509");
+        int count = in.readInt();
+        List<PkiGenerator.Credential> all = new ArrayList<>(count);
+        List<Integer> issuers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            issuers.add(in.readInt());
+            X509Certificate cert = (X509Certificate) cf.generateCertificate(new ByteArrayInputStream(readBytes(in)));
+            String keyAlgorithm = in.readUTF();
+            PrivateKey key = KeyFactory.getInstance(keyAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(readBytes(in)));
+            int pathLength = cert.getBasicConstraints() == Integer.MAX_VALUE ? -1 : cert.getBasicConstraints();
+            all.add(new PkiGenerator.Credential(cert, new KeyPair(cert.getPublicKey(), key), pathLength));
+        }
+        List<X509CRL> crls = new ArrayList<>();
+        int crlCount = in.readInt();
+        for (int i = 0; i < crlCount; i++) {
+            crls.add((X509CRL) cf.generateCRL(new ByteArrayInputStream(readBytes(in))));
+        }
+        List<PkiGenerator.Credential> cas = new ArrayList<>();
+        List<X509Certificate> certificates = new ArrayList<>();
+        List<PkiGenerator.Credential> leaves = new ArrayList<>();
+        List<List<X509Certificate>> chains = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PkiGenerator.Credential c = all.get(i);
+            if (i > 0) {
+                certificates.add(c.certificate);
+            }
+            if (c.certificate.getBasicConstraints() >= 0) {
+                cas.add(c);
+                continue;
+            }
+            leaves.add(c);
+            List<X509Certificate> chain = new ArrayList<>();
+            for (int j = i; issuers.get(j) >= 0; j = issuers.get(j)) {
+                chain.add(all.get(j).certificate);
+            }
+            chains.add(chain);
+        }
+        return new Fixture(new PkiGenerator.Hierarchy(all.get(0), cas, certificates, leaves, chains), crls);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] b) throws IOException {
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] b = new byte[in.readInt()];
+        in.readFully(b);
+        return b;
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static String hex(byte[] b) {
+        StringBuilder sb = new StringBuilder();
+        for (byte x : b) {
+            sb.append(String.format("%02x", x));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Generates fixture to the cache, eg before parallel runs.
+     *
+     * @param args key type, depth, fan-out, number of revoked serials per CRL and seed
+     */
+    public static void main(String[] args) throws GeneralSecurityException, IOException {
+        if (args.length != 5) {
+            throw new IllegalArgumentException("Expected key type, depth, fan-out, number of revoked serials and seed");
+        }
+        Fixture fixture = get(args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), Long.parseLong(args[4]));
+        System.out.println(fixture.hierarchy.certificates.size() + 1 + " certificates, " + fixture.crls.size() + " CRLs in " + Settings.fixtures);
+    }
+}
@@ -0,0 +1,459 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Synthetic PKI hierarchies of any depth and fan-out, and their CRLs,
+ * generated offline.
+ * Certificates are DER encoded here and signed by plain Signature, so no
+ * jdk internal api (sun.security.x509) is needed and the same code works on
+ * every jdk having the key type. Supported key types are RSA, EC, Ed25519
+ * (EdDSA) and ML-DSA-44/65/87.
+ */
+public class PkiGenerator {
+
+    //fixed validity, so generated certificates do not depend on time of generation
+    private static final Date NOT_BEFORE = new Date(1577836800000L); //2020-01-01
+    private static final Date NOT_AFTER = new Date(4102358400000L); //2099-12-31
+
+    private static final String OID_BASIC_CONSTRAINTS = "2.5.29.19";
+    private static final String OID_KEY_USAGE = "2.5.29.15";
+    private static final String OID_EXTENDED_KEY_USAGE = "2.5.29.37";
+    private static final String OID_SUBJECT_KEY_IDENTIFIER = "2.5.29.14";
+    private static final String OID_AUTHORITY_KEY_IDENTIFIER = "2.5.29.35";
+    private static final String OID_CRL_NUMBER = "2.5.29.20";
+    private static final String OID_SERVER_AUTH = "1.3.6.1.5.5.7.3.1";
+    private static final String OID_CLIENT_AUTH = "1.3.6.1.5.5.7.3.2";
+    private static final String OID_COMMON_NAME = "2.5.4.3";
+    private static final String OID_ORGANIZATION = "2.5.4.10";
+
+    private final String keyAlgorithm;
+    private final int keySize;
+    private final String signatureAlgorithm;
+    private final byte[] signatureAlgorithmId;
+    private final SecureRandom random;
+    private final KeyPairGenerator keyPairGenerator;
+    private final CertificateFactory certificateFactory;
+    private boolean keyIdentifiers = true;
+    private boolean pathLengths = false;
+
+    /**
+     * Certificate with its key pair.
+     */
+    public static class Credential {
+
+        public final X509Certificate certificate;
+        public final KeyPair keys;
+        //levels of CAs which may follow this one, -1 for no limit
+        final int pathLength;
+
+        Credential(X509Certificate certificate, KeyPair keys, int pathLength) {
+            this.certificate = certificate;
+            this.keys = keys;
+            this.pathLength = pathLength;
+        }
+    }
+
+    /**
+     * Self-signed root, CAs issued by it and end entities issued by last level
+     * of CAs.
+     */
+    public static class Hierarchy {
+
+        public final Credential root;
+        //root and all CAs issued in the hierarchy, parents before children
+        public final List<Credential> cas;
+        //all certificates but root, parents before children
+        public final List<X509Certificate> certificates;
+        public final List<Credential> leaves;
+        //for each leaf, certificate path from the leaf up to (not including) root
+        public final List<List<X509Certificate>> chains;
+
+        Hierarchy(Credential root, List<Credential> cas, List<X509Certificate> certificates, List<Credential> leaves, List<List<X509Certificate>> chains) {
+            this.root = root;
+            this.cas = Collections.unmodifiableList(cas);
+            this.certificates = Collections.unmodifiableList(certificates);
+            this.leaves = Collections.unmodifiableList(leaves);
+            this.chains = Collections.unmodifiableList(chains);
+        }
+    }
+
+    /**
+     * @param keyType RSA, EC, Ed25519 (or EdDSA), ML-DSA-44, ML-DSA-65 or ML-DSA-87
+     * @throws NoSuchAlgorithmException if the key type is unknown or not
+     * supported by this jdk
+     */
+    public PkiGenerator(String keyType, SecureRandom random) throws NoSuchAlgorithmException {
+        this.random = random;
+        switch (keyType) {
+            case "RSA":
+                keyAlgorithm = "RSA";
+                keySize = 2048;
+                signatureAlgorithm = "SHA256withRSA";
+                signatureAlgorithmId = sequence(oid("1.2.840.113549.1.1.11"), new byte[]{0x05, 0x00});
+                break;
+            case "EC":
+                keyAlgorithm = "EC";
+                keySize = 256;
+                signatureAlgorithm = "SHA256withECDSA";
+                signatureAlgorithmId = sequence(oid("1.2.840.10045.4.3.2"));
+                break;
+            case "Ed25519":
+            case "EdDSA":
+                keyAlgorithm = "Ed25519";
+                keySize = 255;
+                signatureAlgorithm = "Ed25519";
+                signatureAlgorithmId = sequence(oid("1.3.101.112"));
+                break;
+            case "ML-DSA-44":
+            case "ML-DSA-65":
+            case "ML-DSA-87":
+                keyAlgorithm = keyType;
+                keySize = 0;
+                signatureAlgorithm = keyType;
+                signatureAlgorithmId = sequence(oid("2.16.840.1.101.3.4.3." + (keyType.equals("ML-DSA-44") ? 17 : keyType.equals("ML-DSA-65") ? 18 : 19)));
+                break;
+            default:
+                throw new NoSuchAlgorithmException("Unknown key type " + keyType);
+        }
+        keyPairGenerator = KeyPairGenerator.getInstance(keyAlgorithm);
+        if (keySize > 0) {
+            keyPairGenerator.initialize(keySize, random);
+        } else {
+            try {
+                keyPairGenerator.initialize(null, random);
+            } catch (GeneralSecurityException | RuntimeException ex) {
+                //generators of single parameter set (ML-DSA-65...) do not need to be initialized, and some do not accept null
+            }
+        }
+        Signature.getInstance(signatureAlgorithm);
+        try {
+            certificateFactory = CertificateFactory.getInstance("X.509");
+        } catch (GeneralSecurityException ex) {
+            throw new NoSuchAlgorithmException(ex);
+        }
+    }
+
+    /**
+     * Whether to add subject and authority key identifiers, true by default.
+     */
+    public void setKeyIdentifiers(boolean keyIdentifiers) {
+        this.keyIdentifiers = keyIdentifiers;
+    }
+
+    /**
+     * Whether CAs limit path length below them to what the hierarchy needs,
+     * false by default.
+     */
+    public void setPathLengths(boolean pathLengths) {
+        this.pathLengths = pathLengths;
+    }
+
+    public KeyPair generateKeyPair() {
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    public Credential createRoot(String name, int pathLength) throws GeneralSecurityException {
+        KeyPair keys = generateKeyPair();
+        byte[] subject = name(name);
+        return new Credential(createCertificate(subject, keys.getPublic(), subject, keys, true, pathLength), keys, pathLength);
+    }
+
+    /**
+     * @param pathLength levels of CAs which may follow this one, -1 for no
+     * limit; ignored for end entity
+     */
+    public Credential issue(String name, Credential issuer, boolean ca, int pathLength) throws GeneralSecurityException {
+        KeyPair keys = generateKeyPair();
+        return new Credential(createCertificate(name(name), keys.getPublic(),
+                issuer.certificate.getSubjectX500Principal().getEncoded(), issuer.keys, ca, pathLength), keys, pathLength);
+    }
+
+    /**
+     * @param depth number of certificates in path of each leaf, root not
+     * counted; 1 means leaves are issued by root
+     * @param fanOut number of certificates issued by each CA
+     */
+    public Hierarchy generate(String name, int depth, int fanOut) throws GeneralSecurityException {
+        Credential root = createRoot(name + " root", pathLengths ? depth - 1 : -1);
+        List<Credential> cas = new ArrayList<>();
+        cas.add(root);
+        List<X509Certificate> certificates = new ArrayList<>();
+        List<Credential> leaves = new ArrayList<>();
+        List<List<X509Certificate>> chains = new ArrayList<>();
+        List<Credential> level = Collections.singletonList(root);
+        //paths from top intermediate down to the CA of the level
+        List<List<X509Certificate>> paths = Collections.singletonList(Collections.<X509Certificate>emptyList());
+        for (int l = 1; l <= depth; l++) {
+            boolean ca = l < depth;
+            List<Credential> next = new ArrayList<>();
+            List<List<X509Certificate>> nextPaths = new ArrayList<>();
+            for (int i = 0; i < level.size(); i++) {
+                for (int j = 0; j < fanOut; j++) {
+                    String childName = name + (ca ? " ca " : " leaf ") + l + "." + (i * fanOut + j);
+                    Credential child = issue(childName, level.get(i), ca, pathLengths ? depth - l - 1 : -1);
+                    certificates.add(child.certificate);
+                    if (ca) {
+                        cas.add(child);
+                    }
+                    List<X509Certificate> path = new ArrayList<>(paths.get(i));
+                    path.add(child.certificate);
+                    next.add(child);
+                    nextPaths.add(path);
+                }
+            }
+            level = next;
+            paths = nextPaths;
+        }
+        for (int i = 0; i < level.size(); i++) {
+            leaves.add(level.get(i));
+            List<X509Certificate> chain = new ArrayList<>(paths.get(i));
+            Collections.reverse(chain);
+            chains.add(chain);
+        }
+        return new Hierarchy(root, cas, certificates, leaves, chains);
+    }
+
+    /**
+     * Self-signed CAs which issued nothing, to make set of trust anchors
+     * bigger. They share one key pair, as their keys are never used.
+     */
+    public List<X509Certificate> createDecoyAnchors(String name, int count) throws GeneralSecurityException {
+        return createDecoys(name, count, false);
+    }
+
+    /**
+     * CAs issued by a CA outside of any generated hierarchy, to fill
+     * certificate stores. They share one key pair, as their keys are never
+     * used.
+     */
+    public List<X509Certificate> createDecoyIntermediates(String name, int count) throws GeneralSecurityException {
+        return createDecoys(name, count, true);
+    }
+
+    private List<X509Certificate> createDecoys(String name, int count, boolean issued) throws GeneralSecurityException {
+        KeyPair keys = generateKeyPair();
+        byte[] issuer = name(name + " decoy issuer");
+        List<X509Certificate> r = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] subject = name(name + " decoy " + i);
+            r.add(createCertificate(subject, keys.getPublic(), issued ? issuer : subject, keys, true, -1));
+        }
+        return r;
+    }
+
+    private X509Certificate createCertificate(byte[] subject, PublicKey publicKey, byte[] issuer, KeyPair issuerKeys,
+            boolean ca, int pathLength) throws GeneralSecurityException {
+        List<byte[]> extensions = new ArrayList<>();
+        if (ca) {
+            extensions.add(extension(OID_BASIC_CONSTRAINTS, true, pathLength >= 0
+                    ? sequence(new byte[]{0x01, 0x01, (byte) 0xff}, integer(BigInteger.valueOf(pathLength)))
+                    : sequence(new byte[]{0x01, 0x01, (byte) 0xff})));
+            //keyCertSign and cRLSign
+            extensions.add(extension(OID_KEY_USAGE, true, tlv(0x03, new byte[]{0x01, 0x06})));
+        } else {
+            extensions.add(extension(OID_BASIC_CONSTRAINTS, true, sequence()));
+            //digitalSignature, and keyEncipherment for RSA key exchange of TLS
+            extensions.add(extension(OID_KEY_USAGE, true, keyAlgorithm.equals("RSA")
+                    ? tlv(0x03, new byte[]{0x05, (byte) 0xa0}) : tlv(0x03, new byte[]{0x07, (byte) 0x80})));
+            extensions.add(extension(OID_EXTENDED_KEY_USAGE, false, sequence(oid(OID_SERVER_AUTH), oid(OID_CLIENT_AUTH))));
+        }
+        if (keyIdentifiers) {
+            extensions.add(extension(OID_SUBJECT_KEY_IDENTIFIER, false, tlv(0x04, keyIdentifier(publicKey))));
+            extensions.add(extension(OID_AUTHORITY_KEY_IDENTIFIER, false, sequence(tlv(0x80, keyIdentifier(issuerKeys.getPublic())))));
+        }
+        byte[] tbs = sequence(
+                tlv(0xa0, integer(BigInteger.valueOf(2))),
+                integer(nextSerial()),
+                signatureAlgorithmId,
+                issuer,
+                sequence(time(NOT_BEFORE), time(NOT_AFTER)),
+                subject,
+                publicKey.getEncoded(),
+                tlv(0xa3, sequence(extensions.toArray(new byte[extensions.size()][]))));
+        return (X509Certificate) certificateFactory.generateCertificate(new ByteArrayInputStream(signed(tbs, issuerKeys.getPrivate())));
+    }
+
+    /**
+     * @return random positive serial number, as of generated certificates
+     */
+    public BigInteger nextSerial() {
+        return new BigInteger(63, random).setBit(62);
+    }
+
+    /**
+     * @param revoked serial numbers of revoked certificates
+     * @param number CRL number
+     */
+    public X509CRL createCrl(Credential issuer, List<BigInteger> revoked, int number) throws GeneralSecurityException {
+        List<byte[]> entries = new ArrayList<>(revoked.size());
+        for (BigInteger serial : revoked) {
+            entries.add(sequence(integer(serial), time(NOT_BEFORE)));
+        }
+        List<byte[]> extensions = new ArrayList<>();
+        if (keyIdentifiers) {
+            extensions.add(extension(OID_AUTHORITY_KEY_IDENTIFIER, false, sequence(tlv(0x80, keyIdentifier(issuer.keys.getPublic())))));
+        }
+        extensions.add(extension(OID_CRL_NUMBER, false, integer(BigInteger.valueOf(number))));
+        List<byte[]> tbs = new ArrayList<>();
+        //v2, as there are extensions
+        tbs.add(integer(BigInteger.ONE));
+        tbs.add(signatureAlgorithmId);
+        tbs.add(issuer.certificate.getSubjectX500Principal().getEncoded());
+        tbs.add(time(NOT_BEFORE));
+        tbs.add(time(NOT_AFTER));
+        if (!entries.isEmpty()) {
+            tbs.add(sequence(entries.toArray(new byte[entries.size()][])));
+        }
+        tbs.add(tlv(0xa0, sequence(extensions.toArray(new byte[extensions.size()][]))));
+        return (X509CRL) certificateFactory.generateCRL(new ByteArrayInputStream(
+                signed(sequence(tbs.toArray(new byte[tbs.size()][])), issuer.keys.getPrivate())));
+    }
+
+    /**
+     * @return DER of signed structure (certificate, crl...) of given "to be signed" part
+     */
+    byte[] signed(byte[] tbs, PrivateKey key) throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(signatureAlgorithm);
+        signature.initSign(key, random);
+        signature.update(tbs);
+        byte[] bits = signature.sign();
+        byte[] bitString = new byte[bits.length + 1];
+        System.arraycopy(bits, 0, bitString, 1, bits.length);
+        return sequence(tbs, signatureAlgorithmId, tlv(0x03, bitString));
+    }
+
+    private static byte[] keyIdentifier(PublicKey key) throws NoSuchAlgorithmException {
+        //any method is allowed, sha-1 of whole encoded key is simplest
+        return MessageDigest.getInstance("SHA-1").digest(key.getEncoded());
+    }
+
+    private static byte[] extension(String oid, boolean critical, byte[] value) {
+        if (critical) {
+            return sequence(oid(oid), new byte[]{0x01, 0x01, (byte) 0xff}, tlv(0x04, value));
+        }
+        return sequence(oid(oid), tlv(0x04, value));
+    }
+
+    /**
+     * @return DER of distinguished name "CN=name, O=cryptotest"
+     */
+    static byte[] name(String name) {
+        return sequence(
+                tlv(0x31, sequence(oid(OID_ORGANIZATION), tlv(0x0c, "cryptotest".getBytes(StandardCharsets.UTF_8)))),
+                tlv(0x31, sequence(oid(OID_COMMON_NAME), tlv(0x0c, name.getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    /**
+     * @return UTCTime before 2050, GeneralizedTime since, as RFC 5280 requires
+     */
+    static byte[] time(Date date) {
+        SimpleDateFormat year = new SimpleDateFormat("yyyy", Locale.US);
+        year.setTimeZone(TimeZone.getTimeZone("UTC"));
+        boolean utc = Integer.parseInt(year.format(date)) < 2050;
+        SimpleDateFormat format = new SimpleDateFormat(utc ? "yyMMddHHmmss'Z'" : "yyyyMMddHHmmss'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return tlv(utc ? 0x17 : 0x18, format.format(date).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static byte[] integer(BigInteger value) {
+        return tlv(0x02, value.toByteArray());
+    }
+
+    static byte[] oid(String dotted) {
+        String[] arcs = dotted.split("\\.");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeArc(out, Long.parseLong(arcs[0]) * 40 + Long.parseLong(arcs[1]));
+        for (int i = 2; i < arcs.length; i++) {
+            writeArc(out, Long.parseLong(arcs[i]));
+        }
+        return tlv(0x06, out.toByteArray());
+    }
+
+    private static void writeArc(ByteArrayOutputStream out, long arc) {
+        //base 128, most significant group first, all but last with high bit set
+        int groups = 1;
+        while ((arc >>> (7 * groups)) != 0) {
+            groups++;
+        }
+        for (int i = groups - 1; i >= 0; i--) {
+            int b = (int) ((arc >>> (7 * i)) & 0x7f);
+            out.write(i > 0 ? b | 0x80 : b);
+        }
+    }
+
+    static byte[] sequence(byte[]... contents) {
+        return tlv(0x30, contents);
+    }
+
+    static byte[] tlv(int tag, byte[]... contents) {
+        int length = 0;
+        for (byte[] content : contents) {
+            length += content.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 6);
+        out.write(tag);
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            int bytes = 0;
+            while ((length >>> (8 * bytes)) != 0) {
+                bytes++;
+            }
+            out.write(0x80 | bytes);
+            for (int i = bytes - 1; i >= 0; i--) {
+                out.write((length >>> (8 * i)) & 0xff);
+            }
+        }
+        for (byte[] content : contents) {
+            out.write(content, 0, content.length);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only record of completed checks (Settings.journal), written as
+ * each check completes, not when it is reported. Run without
+ * Settings.resume starts the journal again, so it holds only the checks of
+ * the last run. When jvm dies in middle of the run, rerun with
+ * Settings.resume takes outcomes of checks already in journal instead of
+ * running them again, and appends the rest. Only records of the same jdk
+ * build are used. Checks still count as seen and checked, so the totals of
+ * CryptoTest stay same as in uninterrupted run.
+ */
+public class ProgressJournal {
+
+    private static ProgressJournal journal;
+    private static boolean journalOpened;
+
+    private final JsonLines writer;
+    private final Map<String, Map<String, String>> completed = new HashMap<>();
+
+    private ProgressJournal(String file, boolean resume) throws IOException {
+        if (resume && new File(file).exists()) {
+            load(file);
+        }
+        //records of older runs would make resume skip checks the interrupted run never reached
+        writer = new JsonLines(file, resume);
+    }
+
+    /**
+     * @return journal set by cryptotests.journal, or null if none is set or it can not be opened
+     */
+    public static synchronized ProgressJournal getJournal() {
+        if (!journalOpened) {
+            journalOpened = true;
+            if (Settings.journal != null) {
+                try {
+                    journal = new ProgressJournal(Settings.journal, Settings.resume);
+                } catch (IOException ex) {
+                    System.err.println("Journal " + Settings.journal + " not used: " + ex);
+                }
+            }
+        }
+        return journal;
+    }
+
+    private static String getJdk() {
+        return System.getProperty("java.vendor") + " " + System.getProperty("java.runtime.version");
+    }
+
+    private static String getKey(String type, String provider, String alias) {
+        return type + "/" + provider + "/" + alias;
+    }
+
+    private void load(String file) throws IOException {
+        String jdk = getJdk();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                Map<String, String> record;
+                try {
+                    record = JsonLines.parse(line);
+                } catch (RuntimeException ex) {
+                    //last line may be cut by the dying jvm
+                    continue;
+                }
+                if (jdk.equals(record.get("jdk"))) {
+                    completed.put(getKey(record.get("type"), record.get("provider"), record.get("alias")), record);
+                }
+            }
+        }
+        System.out.println("Resuming, " + completed.size() + " checks completed in " + file);
+    }
+
+    void write(AlgorithmCheck check) {
+        Exception ex = check.getException();
+        writer.write("jdk", getJdk(),
+                "type", check.getService().getType(),
+                "provider", check.getProvider().getName(),
+                "alias", check.getAlias(),
+                "outcome", check.getOutcome().name(),
+                "exception", ex == null ? null : ex.getClass().getName(),
+                "message", ex == null ? null : ex.getMessage(),
+                "nanos", check.getTotalTime());
+    }
+
+    /**
+     * Sets outcome of the check from journal, if it is there.
+     *
+     * @return whether the check was completed in previous run
+     */
+    boolean restore(AlgorithmCheck check) {
+        Map<String, String> record = completed.get(getKey(check.getService().getType(), check.getProvider().getName(), check.getAlias()));
+        if (record == null) {
+            return false;
+        }
+        AlgorithmCheck.Outcome outcome;
+        try {
+            outcome = AlgorithmCheck.Outcome.valueOf(record.get("outcome"));
+        } catch (RuntimeException ex) {
+            return false;
+        }
+        Exception ex = null;
+        if (record.get("exception") != null) {
+            ex = new Exception("From journal: " + record.get("exception") + ": " + record.get("message"));
+        }
+        long nanos = 0;
+        try {
+            nanos = Long.parseLong(record.get("nanos"));
+        } catch (RuntimeException e) {
+            //timing is not important for resumed check
+        }
+        check.resume(outcome, ex, nanos);
+        return true;
+    }
+}
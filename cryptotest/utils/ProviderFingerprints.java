@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Fingerprint of each provider: its name, version, all its attributes (as
+ * printed by TestProviders) and all its services with aliases (as listed by
+ * TestServices). Fingerprints of last successful CryptoTest run are kept in
+ * Settings.fingerprints file. With Settings.delta, checks of providers with
+ * unchanged fingerprint are skipped. Change of implementation which does not
+ * show in attributes is not noticed, so full run is forced when the last one
+ * is older than Settings.fullRunDays.
+ */
+public class ProviderFingerprints {
+
+    private static final String PROVIDER_PREFIX = "provider.";
+    private static final String LAST_FULL_RUN = "lastFullRun";
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static ProviderFingerprints fingerprints;
+    private static boolean fingerprintsOpened;
+
+    private final String file;
+    private final Properties baseline = new Properties();
+    private final Map<String, String> current = new HashMap<>();
+    private final boolean delta;
+
+    private ProviderFingerprints(String file) throws IOException {
+        this.file = file;
+        if (new File(file).exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                baseline.load(in);
+            }
+        }
+        for (Provider provider : Security.getProviders()) {
+            current.put(provider.getName(), getFingerprint(provider));
+        }
+        delta = Settings.delta && isDeltaAllowed();
+        if (delta) {
+            List<String> changed = new ArrayList<>();
+            for (Provider provider : Security.getProviders()) {
+                if (!isUnchanged(provider)) {
+                    changed.add(provider.getName());
+                }
+            }
+            System.out.println("Delta run, checking only changed providers: " + changed);
+        }
+    }
+
+    /**
+     * @return fingerprints set by cryptotests.fingerprints, or null if none is set or it can not be read
+     */
+    public static synchronized ProviderFingerprints getFingerprints() {
+        if (!fingerprintsOpened) {
+            fingerprintsOpened = true;
+            if (Settings.fingerprints != null) {
+                try {
+                    fingerprints = new ProviderFingerprints(Settings.fingerprints);
+                } catch (IOException ex) {
+                    System.err.println("Fingerprints " + Settings.fingerprints + " not used: " + ex);
+                }
+            }
+        }
+        return fingerprints;
+    }
+
+    private boolean isDeltaAllowed() {
+        String lastFull = baseline.getProperty(LAST_FULL_RUN);
+        if (lastFull == null) {
+            System.out.println("Full run, no full run recorded in " + file);
+            return false;
+        }
+        long age = System.currentTimeMillis() - Long.parseLong(lastFull);
+        if (age > Settings.fullRunDays * DAY) {
+            System.out.println("Full run, last one was " + new Date(Long.parseLong(lastFull)));
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isDelta() {
+        return delta;
+    }
+
+    /**
+     * @return whether checks of the provider can be skipped in this run
+     */
+    public boolean isUnchanged(Provider provider) {
+        return delta && current.get(provider.getName()) != null
+                && current.get(provider.getName()).equals(baseline.getProperty(PROVIDER_PREFIX + provider.getName()));
+    }
+
+    /**
+     * Stores fingerprints of this run as the new baseline. To be called only
+     * when the run passed, so failing provider is checked again next time.
+     */
+    public void save() throws IOException {
+        Properties p = new Properties();
+        for (Map.Entry<String, String> e : current.entrySet()) {
+            p.setProperty(PROVIDER_PREFIX + e.getKey(), e.getValue());
+        }
+        String lastFull = delta ? baseline.getProperty(LAST_FULL_RUN) : String.valueOf(System.currentTimeMillis());
+        if (lastFull != null) {
+            p.setProperty(LAST_FULL_RUN, lastFull);
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            p.store(out, "fingerprints of providers, see cryptotest.utils.ProviderFingerprints");
+        }
+    }
+
+    public static String getFingerprint(Provider provider) {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : provider.entrySet()) {
+            lines.add("att " + entry.getKey() + "=" + entry.getValue());
+        }
+        for (Provider.Service service : provider.getServices()) {
+            lines.add("service " + service.getType() + "." + service.getAlgorithm() + " " + service.getClassName());
+            for (String alias : Misc.getAliases(service)) {
+                lines.add("alias " + service.getType() + "." + alias + " " + service.getAlgorithm());
+            }
+        }
+        //order of attributes and services is not given
+        Collections.sort(lines);
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update((provider.getName() + "\n" + provider.getProperty("Provider.id version") + "\n").getBytes(StandardCharsets.UTF_8));
+            for (String line : lines) {
+                md.update(line.getBytes(StandardCharsets.UTF_8));
+                md.update((byte) '\n');
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : md.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Splits checks of all tests to Settings.shards parts, so CryptoTest can be
+ * run by several jvms (or hosts) at once, each with its own Settings.shard.
+ * Check belongs to shard by String.hashCode of its provider, type and alias,
+ * which is same in every jvm. Each shard writes summary of each test to its
+ * results file; main of this class merges those files and checks the same
+ * invariants CryptoTest checks for unsharded run.
+ */
+public class Shards {
+
+    /**
+     * Fails when Settings.shard is not one of Settings.shards, such shard
+     * would run no check and pass.
+     */
+    public static void checkSettings() {
+        if (Settings.shards < 1 || Settings.shard < 0 || Settings.shard >= Settings.shards) {
+            throw new IllegalArgumentException("cryptotests.shard must be from 0 to cryptotests.shards - 1, got shard "
+                    + Settings.shard + " of " + Settings.shards);
+        }
+    }
+
+    public static boolean isSharded() {
+        return Settings.shards > 1;
+    }
+
+    public static boolean isInShard(String provider, String type, String alias) {
+        if (!isSharded()) {
+            return true;
+        }
+        return Math.floorMod((provider + "/" + type + "/" + alias).hashCode(), Settings.shards) == Settings.shard;
+    }
+
+    public static String getDescription() {
+        return "shard " + Settings.shard + " of " + Settings.shards;
+    }
+
+    /**
+     * Records result of one test of this shard to results file, if any.
+     */
+    public static void writeSummary(TestResult.AlgorithmTestResult result) {
+        JsonLines results = JsonLines.getResults();
+        if (results != null) {
+            results.write("summary", result.getTest().getSimpleName(),
+                    "shard", Settings.shard,
+                    "shards", Settings.shards,
+                    "seen", result.getSeen(),
+                    "checked", result.getSubtests(),
+                    "state", result.getState().name(),
+                    "jdk", System.getProperty("java.runtime.version"));
+        }
+    }
+
+    /**
+     * @param args file to write merged results to, followed by results files of all shards
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Expected merged results file followed by results files of shards");
+        }
+        //test -> shard -> summary
+        Map<String, Map<Integer, Map<String, String>>> summaries = new TreeMap<>();
+        TreeSet<Integer> shardCounts = new TreeSet<>();
+        TreeSet<String> jdks = new TreeSet<>();
+        //merged file is truncated before shards are read
+        File output = new File(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            if (output.exists() && Files.isSameFile(output.toPath(), new File(args[i]).toPath())) {
+                throw new IllegalArgumentException("Merged results file " + args[0] + " is also results file of a shard");
+            }
+        }
+        try (Writer merged = new OutputStreamWriter(new FileOutputStream(args[0]), StandardCharsets.UTF_8)) {
+            for (int i = 1; i < args.length; i++) {
+                try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(args[i]), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        if (line.trim().isEmpty()) {
+                            continue;
+                        }
+                        Map<String, String> record = JsonLines.parse(line);
+                        if (record.get("summary") == null) {
+                            //records of checks are copied as they are
+                            merged.write(line);
+                            merged.write('\n');
+                            continue;
+                        }
+                        shardCounts.add(Integer.valueOf(record.get("shards")));
+                        jdks.add(record.get("jdk"));
+                        Map<Integer, Map<String, String>> byShard = summaries.get(record.get("summary"));
+                        if (byShard == null) {
+                            byShard = new TreeMap<>();
+                            summaries.put(record.get("summary"), byShard);
+                        }
+                        if (byShard.put(Integer.valueOf(record.get("shard")), record) != null) {
+                            throw new IllegalArgumentException("Shard " + record.get("shard") + " of " + record.get("summary") + " found more than once");
+                        }
+                    }
+                }
+            }
+        }
+        int failures = 0;
+        if (summaries.isEmpty()) {
+            System.out.println("No summaries found");
+            failures++;
+        }
+        if (shardCounts.size() > 1) {
+            System.out.println("Shards were run with different number of shards: " + shardCounts);
+            failures++;
+        }
+        if (jdks.size() > 1) {
+            System.out.println("Shards were run by different jdks: " + jdks);
+            failures++;
+        }
+        int shards = shardCounts.isEmpty() ? 0 : shardCounts.first();
+        int maxSeen = Integer.MIN_VALUE;
+        int minSeen = Integer.MAX_VALUE;
+        int totalAlghoritmsChecked = 0;
+        for (Map.Entry<String, Map<Integer, Map<String, String>>> test : summaries.entrySet()) {
+            int checked = 0;
+            for (int shard = 0; shard < shards; shard++) {
+                Map<String, String> summary = test.getValue().get(shard);
+                if (summary == null) {
+                    System.out.println(test.getKey() + ": shard " + shard + " is missing");
+                    failures++;
+                    continue;
+                }
+                int seen = Integer.parseInt(summary.get("seen"));
+                maxSeen = Math.max(maxSeen, seen);
+                minSeen = Math.min(minSeen, seen);
+                checked += Integer.parseInt(summary.get("checked"));
+                if (!TestResult.State.PASSED.name().equals(summary.get("state"))) {
+                    System.out.println(test.getKey() + ": shard " + shard + " " + summary.get("state"));
+                    failures++;
+                }
+            }
+            System.out.println(test.getKey() + ": " + checked + " checked");
+            totalAlghoritmsChecked += checked;
+        }
+        if (maxSeen != minSeen) {
+            System.out.println("Number of checked services changed during test run " + maxSeen + "/" + minSeen);
+            failures++;
+        } else {
+            System.out.println("Number of checked services changed during test run " + maxSeen);
+        }
+        if (maxSeen != totalAlghoritmsChecked) {
+            System.out.println("Some algorithms missed! Checked " + totalAlghoritmsChecked + " from " + maxSeen);
+            failures++;
+        } else {
+            System.out.println("Tested all " + totalAlghoritmsChecked + " algorithms");
+        }
+        System.out.println("Merged " + summaries.size() + " tests of " + shards + " shards; failed: " + failures);
+        if (failures > 0) {
+            throw new RuntimeException("Some tests failed: " + failures);
+        }
+    }
+}
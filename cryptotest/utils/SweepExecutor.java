@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import cryptotest.Settings;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared worker pool used when checks are run in parallel.
+ * See Settings.threads and Settings.executor
+ */
+public class SweepExecutor {
+
+    private static final ApiBridge VIRTUAL_FACTORY = ApiBridge.method(Executors.class, "newVirtualThreadPerTaskExecutor");
+
+    private static ExecutorService pool;
+
+    public static int getThreads() {
+        if (Settings.threads <= 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return Settings.threads;
+    }
+
+    public static boolean isParallel() {
+        return getThreads() > 1;
+    }
+
+    public static synchronized ExecutorService getPool() {
+        if (pool == null) {
+            if (Settings.executor.equals("forkjoin")) {
+                pool = new ForkJoinPool(getThreads());
+            } else if (Settings.executor.equals("fixed")) {
+                pool = Executors.newFixedThreadPool(getThreads(), new WorkerFactory());
+            } else if (Settings.executor.equals("virtual")) {
+                pool = newVirtualPool();
+            } else {
+                throw new RuntimeException("Unknown executor: " + Settings.executor);
+            }
+            System.out.println("Checking algorithms by " + getThreads() + " "
+                    + (pool instanceof ThreadPoolExecutor ? "fixed" : Settings.executor) + " workers");
+        }
+        return pool;
+    }
+
+    /**
+     * Every check on its own virtual thread, at most Settings.threads of them
+     * running at once. Needs jdk 21, older jdks fall back to fixed pool.
+     */
+    private static ExecutorService newVirtualPool() {
+        ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+        if (virtual == null) {
+            System.out.println("Virtual threads are not available on this jdk, using fixed pool");
+            return Executors.newFixedThreadPool(getThreads(), new WorkerFactory());
+        }
+        PinningMonitor.start();
+        return new LimitedExecutor(virtual, getThreads());
+    }
+
+    /**
+     * @return whether checks are run on virtual threads
+     */
+    static boolean isVirtual() {
+        return isParallel() && Settings.executor.equals("virtual") && VIRTUAL_FACTORY.isAvailable();
+    }
+
+    /**
+     * @return executor starting virtual thread for each task, null on jdk
+     * older than 21
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!VIRTUAL_FACTORY.isAvailable()) {
+            return null;
+        }
+        try {
+            return (ExecutorService) VIRTUAL_FACTORY.invoke();
+        } catch (ReflectiveOperationException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Runs tasks by the delegate, but lets only limited number of them run
+     * at once. Tasks wait for permit in their own (virtual) thread.
+     */
+    private static class LimitedExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        LimitedExecutor(ExecutorService delegate, int limit) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(limit);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            delegate.execute(new Runnable() {
+                @Override
+                public void run() {
+                    permits.acquireUninterruptibly();
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "cryptotest-worker-" + counter.incrementAndGet());
+            //hanging check must not keep jvm alive
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+}
@@ -30,11 +30,15 @@ public class TestResult {
         if (state.equals(State.FAILED)){
             throw new RuntimeException(test.getName()+" failed with explanantion of "+explanation.length()+" chars long");
         }
+        if (state.equals(State.TIMEOUT)){
+            throw new RuntimeException(test.getName()+" timed out with explanantion of "+explanation.length()+" chars long");
+        }
     }
 
     public static enum State {
 
-        PASSED, FAILED;
+        //TIMEOUT is failure too, some checks did not finish in time
+        PASSED, FAILED, TIMEOUT;
     }
 
     private final String explanation;
@@ -85,11 +89,23 @@ public class TestResult {
     public static class AlgorithmTestResult extends TestResult {
 
         private final int seen;
+        private CheckTimings timings;
 
         public int getSeen() {
             return seen;
         }
 
+        /**
+         * @return durations of all checks, null when the result did not come from checks run
+         */
+        public CheckTimings getTimings() {
+            return timings;
+        }
+
+        void setTimings(CheckTimings timings) {
+            this.timings = timings;
+        }
+
         public AlgorithmTestResult(String explanation, State state, Class c, int total, int failures, int seen) {
             super(explanation, state, c, total, failures);
             this.seen = seen;
@@ -99,6 +115,10 @@ public class TestResult {
             return new AlgorithmTestResult(expl, State.FAILED, c, total, failures, seen);
         }
 
+        public static AlgorithmTestResult timeout(String expl, Class c, int total, int failures, int seen) {
+            return new AlgorithmTestResult(expl, State.TIMEOUT, c, total, failures, seen);
+        }
+
         public static AlgorithmTestResult pass(String expl, Class c, int total, int seen) {
             return new AlgorithmTestResult(expl, State.PASSED, c, total, 0, seen);
         }
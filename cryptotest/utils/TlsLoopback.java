@@ -0,0 +1,266 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package cryptotest.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.Provider;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.TrustManagerFactory;
+
+/**
+ * Client and server SSLEngine connected in memory, without sockets. Records
+ * wrapped by one engine are queued, each as one packet (so DTLS works too),
+ * and unwrapped by the other one. Server uses key of the leaf of
+ * PkiFixtures.getDefault(), client trusts its root certificate.
+ */
+public class TlsLoopback {
+
+    //handshake of a healthy pair takes few rounds, more means the engines got stuck
+    private static final int MAX_ROUNDS = 1000;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private static KeyStore keyStore;
+    private static KeyStore trustStore;
+
+    private final SSLEngine client;
+    private final SSLEngine server;
+    private final Deque<ByteBuffer> toServer = new ArrayDeque<>();
+    private final Deque<ByteBuffer> toClient = new ArrayDeque<>();
+    private ByteBuffer received;
+    private long recordsPiped;
+
+    /**
+     * @param resumable whether client engine is created for (fake) peer host
+     * and port, so its session can be resumed by the next resumable pair of
+     * the same context
+     * @param protocol protocol enabled on both sides, or null for defaults
+     * @param suite cipher suite enabled on both sides, or null for defaults
+     */
+    public TlsLoopback(SSLContext context, boolean resumable, String protocol, String suite) {
+        client = resumable ? context.createSSLEngine("loopback", 443) : context.createSSLEngine();
+        client.setUseClientMode(true);
+        server = context.createSSLEngine();
+        server.setUseClientMode(false);
+        if (protocol != null) {
+            client.setEnabledProtocols(new String[]{protocol});
+            server.setEnabledProtocols(new String[]{protocol});
+        }
+        if (suite != null) {
+            client.setEnabledCipherSuites(new String[]{suite});
+            server.setEnabledCipherSuites(new String[]{suite});
+        }
+        received = ByteBuffer.allocate(server.getSession().getApplicationBufferSize());
+    }
+
+    /**
+     * @return context of given protocol and provider, initialized with key
+     * and trust managers of PkiFixtures.getDefault()
+     */
+    public static SSLContext createContext(String protocol, Provider provider) throws GeneralSecurityException, IOException {
+        loadStores();
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(keyStore, PkiFixtures.PASSWORD);
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(trustStore);
+        SSLContext context = SSLContext.getInstance(protocol, provider);
+        context.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
+        return context;
+    }
+
+    private static synchronized void loadStores() throws GeneralSecurityException, IOException {
+        if (keyStore != null) {
+            return;
+        }
+        PkiFixtures.Fixture fixture = PkiFixtures.getDefault();
+        KeyStore keys = fixture.createKeyStore("JKS");
+        KeyStore trusted = KeyStore.getInstance("JKS");
+        trusted.load(null, PkiFixtures.PASSWORD);
+        trusted.setCertificateEntry("root", fixture.hierarchy.root.certificate);
+        keyStore = keys;
+        trustStore = trusted;
+    }
+
+    public SSLEngine getClient() {
+        return client;
+    }
+
+    public SSLEngine getServer() {
+        return server;
+    }
+
+    /**
+     * Runs handshake of both engines, including post-handshake messages (eg
+     * TLS 1.3 session tickets) needed for resumption.
+     */
+    public void handshake() throws SSLException {
+        client.beginHandshake();
+        server.beginHandshake();
+        int rounds = 0;
+        while (!isDone(client) || !isDone(server) || !toServer.isEmpty() || !toClient.isEmpty()) {
+            if (++rounds > MAX_ROUNDS) {
+                throw new SSLException("Handshake did not finish in " + MAX_ROUNDS + " rounds, client "
+                        + client.getHandshakeStatus() + ", server " + server.getHandshakeStatus());
+            }
+            step(client, toClient, toServer);
+            step(server, toServer, toClient);
+        }
+    }
+
+    private static boolean isDone(SSLEngine engine) {
+        SSLEngineResult.HandshakeStatus hs = engine.getHandshakeStatus();
+        return hs == SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING || hs == SSLEngineResult.HandshakeStatus.FINISHED;
+    }
+
+    /**
+     * Lets engine do all it can without more packets from its peer.
+     */
+    private void step(SSLEngine engine, Deque<ByteBuffer> in, Deque<ByteBuffer> out) throws SSLException {
+        while (true) {
+            SSLEngineResult.HandshakeStatus hs = engine.getHandshakeStatus();
+            switch (hs) {
+                case NEED_TASK:
+                    Runnable task;
+                    while ((task = engine.getDelegatedTask()) != null) {
+                        task.run();
+                    }
+                    break;
+                case NEED_WRAP:
+                    wrap(engine, EMPTY, out);
+                    break;
+                case NEED_UNWRAP:
+                    if (in.isEmpty()) {
+                        return;
+                    }
+                    unwrap(engine, in);
+                    break;
+                default:
+                    //NEED_UNWRAP_AGAIN of DTLS is jdk 9+ only
+                    if (hs.name().equals("NEED_UNWRAP_AGAIN")) {
+                        received.clear();
+                        check(engine.unwrap(EMPTY, received));
+                        break;
+                    }
+                    //finished, but peer may have sent post-handshake messages
+                    if (in.isEmpty()) {
+                        return;
+                    }
+                    unwrap(engine, in);
+            }
+        }
+    }
+
+    private static void wrap(SSLEngine engine, ByteBuffer src, Deque<ByteBuffer> out) throws SSLException {
+        ByteBuffer packet = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+        check(engine.wrap(src, packet));
+        packet.flip();
+        if (packet.hasRemaining()) {
+            out.add(packet);
+        }
+    }
+
+    /**
+     * Unwraps first queued packet, it is dropped once fully consumed.
+     *
+     * @return number of application bytes received
+     */
+    private int unwrap(SSLEngine engine, Deque<ByteBuffer> in) throws SSLException {
+        ByteBuffer packet = in.peek();
+        if (received.capacity() < engine.getSession().getApplicationBufferSize()) {
+            received = ByteBuffer.allocate(engine.getSession().getApplicationBufferSize());
+        }
+        received.clear();
+        SSLEngineResult r = engine.unwrap(packet, received);
+        check(r);
+        if (!packet.hasRemaining()) {
+            in.poll();
+        }
+        return r.bytesProduced();
+    }
+
+    private static void check(SSLEngineResult r) throws SSLException {
+        if (r.getStatus() != SSLEngineResult.Status.OK) {
+            throw new SSLException("Unexpected " + r);
+        }
+    }
+
+    /**
+     * Sends data from client to server.
+     *
+     * @return number of bytes server received
+     */
+    public int transfer(ByteBuffer data) throws SSLException {
+        while (data.hasRemaining()) {
+            wrap(client, data, toServer);
+        }
+        int total = 0;
+        while (!toServer.isEmpty()) {
+            total += unwrap(server, toServer);
+        }
+        return total;
+    }
+
+    /**
+     * Sends data from client to server through given buffers, record by
+     * record: each record wrapped by client is unwrapped by server at once.
+     * Nothing is queued or allocated here, so whatever gets allocated meanwhile
+     * is allocated by the engines.
+     *
+     * @param net buffer for records, of at least packet buffer size
+     * @param app buffer for received data, of at least application buffer size
+     * @return number of bytes server received
+     */
+    public int pipe(ByteBuffer data, ByteBuffer net, ByteBuffer app) throws SSLException {
+        int total = 0;
+        while (data.hasRemaining()) {
+            net.clear();
+            check(client.wrap(data, net));
+            recordsPiped++;
+            net.flip();
+            while (net.hasRemaining()) {
+                app.clear();
+                SSLEngineResult r = server.unwrap(net, app);
+                check(r);
+                total += r.bytesProduced();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return number of records client wrapped in pipe so far
+     */
+    public long getRecordsPiped() {
+        return recordsPiped;
+    }
+}